@@ -0,0 +1,91 @@
+package com.biso.cordova.plugins.mlkit.barcode.scanner.benchmarks;
+
+import android.graphics.RectF;
+import com.biso.cordova.plugins.mlkit.barcode.scanner.DetectedBarcode;
+import com.google.mlkit.vision.barcode.common.Barcode;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The operations the analyzer runs on every detected barcode of every frame: comparing it with the
+ * barcodes of the last frame, hashing it for the recently seen cache, sorting by the distance to
+ * the center and checking whether it lies inside the scan area.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DetectedBarcodeBenchmark {
+
+  @Param({"1", "4", "16"})
+  public int barcodes;
+
+  private DetectedBarcode barcode;
+  private DetectedBarcode same;
+  private DetectedBarcode other;
+  private ArrayList<DetectedBarcode> unsorted;
+  private ArrayList<DetectedBarcode> sorted;
+  private RectF scanArea;
+
+  @Setup
+  public void setUp() {
+    ArrayList<DetectedBarcode> detected = Fixtures.detected(
+        Fixtures.barcodes(barcodes + 1, Barcode.FORMAT_QR_CODE));
+    barcode = detected.get(0);
+    same = new DetectedBarcode(barcode);
+    other = detected.get(barcodes);
+    // the fixtures are lined up from the center outwards, reversed they are as unsorted as it gets
+    unsorted = new ArrayList<>(detected.subList(0, barcodes));
+    Collections.reverse(unsorted);
+    sorted = new ArrayList<>(unsorted.size());
+    scanArea = new RectF(Fixtures.SCAN_AREA);
+  }
+
+  @Benchmark
+  public boolean equalsSame() {
+    return barcode.equals(same);
+  }
+
+  @Benchmark
+  public boolean equalsOther() {
+    return barcode.equals(other);
+  }
+
+  @Benchmark
+  public int hashCodeOf() {
+    return barcode.hashCode();
+  }
+
+  @Benchmark
+  public ArrayList<DetectedBarcode> sort() {
+    // refilled from the unsorted list, so every invocation sorts the same order
+    sorted.clear();
+    sorted.addAll(unsorted);
+    Collections.sort(sorted);
+    return sorted;
+  }
+
+  @Benchmark
+  public boolean isInScanArea() {
+    return barcode.isInScanArea(scanArea, false);
+  }
+
+  @Benchmark
+  public boolean isInScanAreaIgnoringRotated() {
+    return barcode.isInScanArea(scanArea, true);
+  }
+}
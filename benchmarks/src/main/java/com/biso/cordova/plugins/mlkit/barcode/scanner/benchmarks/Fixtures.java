@@ -0,0 +1,68 @@
+package com.biso.cordova.plugins.mlkit.barcode.scanner.benchmarks;
+
+import android.graphics.Matrix;
+import android.graphics.Rect;
+import android.graphics.RectF;
+import com.biso.cordova.plugins.mlkit.barcode.scanner.DetectedBarcode;
+import com.google.mlkit.vision.barcode.common.Barcode;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+
+/**
+ * Barcodes and scan areas shared by the benchmarks, laid out like a 1280x720 frame shown upright on
+ * a 720x1280 overlay with the default scan area.
+ */
+final class Fixtures {
+
+  static final int SURFACE_WIDTH = 720;
+  static final int SURFACE_HEIGHT = 1280;
+  static final RectF SCAN_AREA = new RectF(72, 424, 648, 856);
+
+  private Fixtures() {
+  }
+
+  /**
+   * @param value  value of the barcode
+   * @param format ML Kit format of the barcode
+   * @param box    bounds in detector coordinates
+   * @return a barcode as the detector reports it
+   */
+  static Barcode barcode(String value, int format, Rect box) {
+    return new Barcode(format, Barcode.TYPE_TEXT, value, value.getBytes(StandardCharsets.UTF_8),
+        box);
+  }
+
+  /**
+   * Creates count barcodes lined up from the center of the scan area outwards, in detector
+   * coordinates that match the overlay.
+   *
+   * @param count  number of barcodes
+   * @param format ML Kit format of the barcodes
+   * @return the barcodes
+   */
+  static ArrayList<Barcode> barcodes(int count, int format) {
+    ArrayList<Barcode> barcodes = new ArrayList<>(count);
+    int centerX = (int) SCAN_AREA.centerX();
+    int centerY = (int) SCAN_AREA.centerY();
+    for (int i = 0; i < count; i++) {
+      int offset = (i % 2 == 0 ? 1 : -1) * ((i + 1) / 2) * 90;
+      barcodes.add(barcode("4006381333931-" + i, format,
+          new Rect(centerX - 150, centerY + offset - 30, centerX + 150, centerY + offset + 30)));
+    }
+    return barcodes;
+  }
+
+  /**
+   * @param barcodes barcodes as the detector reports them
+   * @return the barcodes mapped to the overlay the way the analyzer does it
+   */
+  static ArrayList<DetectedBarcode> detected(ArrayList<Barcode> barcodes) {
+    Matrix identity = new Matrix();
+    ArrayList<DetectedBarcode> detected = new ArrayList<>(barcodes.size());
+    for (Barcode barcode : barcodes) {
+      detected.add(new DetectedBarcode().set(barcode, identity, SCAN_AREA.centerX(),
+          SCAN_AREA.centerY()));
+    }
+    return detected;
+  }
+}
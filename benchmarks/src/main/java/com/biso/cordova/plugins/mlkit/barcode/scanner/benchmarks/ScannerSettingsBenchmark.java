@@ -0,0 +1,72 @@
+package com.biso.cordova.plugins.mlkit.barcode.scanner.benchmarks;
+
+import com.biso.cordova.plugins.mlkit.barcode.scanner.ScannerSettings;
+import java.util.concurrent.TimeUnit;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Reading the options passed to a scan. The minimal options are what most apps pass, the full
+ * ones set every documented option.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ScannerSettingsBenchmark {
+
+  private static final String MINIMAL = "{\"barcodeFormats\":256}";
+  private static final String FULL = "{\"barcodeFormats\":1234,\"detectorAspectRatio\":\"16:9\","
+      + "\"detectorSize\":0.6,\"drawFocusRect\":true,\"focusRectColor\":\"#FFFFFF\","
+      + "\"focusRectBorderRadius\":100,\"focusRectBorderThickness\":5,"
+      + "\"drawFocusLine\":false,\"focusLineColor\":\"#ff2d37\",\"focusLineThickness\":2,"
+      + "\"drawFocusBackground\":false,\"focusBackgroundColor\":\"#66FFFFFF\","
+      + "\"stableThreshold\":5,\"debugOverlay\":false,\"ignoreRotatedBarcodes\":false,"
+      + "\"beepOnSuccess\":false,\"vibrateOnSuccess\":false,\"rotateCamera\":false,"
+      + "\"stabilizationMode\":\"voting\",\"stabilizationWindow\":10,"
+      + "\"stabilizationHitRatio\":0.6,\"fastPathThreshold\":2,\"continuousMode\":false,"
+      + "\"batchMode\":false,\"cropToScanArea\":true,\"scanAreaMargin\":0.1,"
+      + "\"analysisResolution\":\"auto\",\"recentlySeenTtl\":0,\"trackBarcodes\":false,"
+      + "\"adaptiveFormats\":true,\"minFrameSharpness\":4,\"autoZoom\":true}";
+
+  @Param({"minimal", "full"})
+  public String options;
+
+  private String json;
+  private JSONObject parsed;
+
+  @Setup
+  public void setUp() throws JSONException {
+    json = "full".equals(options) ? FULL : MINIMAL;
+    parsed = new JSONObject(json);
+  }
+
+  /**
+   * What a scan pays: the options arrive as json text from the web view.
+   */
+  @Benchmark
+  public ScannerSettings parse() throws JSONException {
+    return new ScannerSettings(new JSONObject(json));
+  }
+
+  /**
+   * Only the mapping of the parsed json to the settings.
+   */
+  @Benchmark
+  public ScannerSettings fromJson() {
+    return new ScannerSettings(parsed);
+  }
+}
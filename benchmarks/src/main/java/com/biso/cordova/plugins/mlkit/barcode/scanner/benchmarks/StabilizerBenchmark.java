@@ -0,0 +1,68 @@
+package com.biso.cordova.plugins.mlkit.barcode.scanner.benchmarks;
+
+import com.biso.cordova.plugins.mlkit.barcode.scanner.DetectedBarcode;
+import com.biso.cordova.plugins.mlkit.barcode.scanner.StabilityCheck;
+import com.biso.cordova.plugins.mlkit.barcode.scanner.Stabilizer;
+import com.biso.cordova.plugins.mlkit.barcode.scanner.VotingStabilizer;
+import com.google.mlkit.vision.barcode.common.Barcode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Per frame cost of the stabilizers. A steady scene shows the same barcodes in every frame, a
+ * flickering one loses the last barcode every other frame, which is what keeps the strict
+ * stabilizer starting over.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StabilizerBenchmark {
+
+  @Param({StabilityCheck.MODE, VotingStabilizer.MODE})
+  public String mode;
+
+  @Param({"1", "4", "16"})
+  public int barcodes;
+
+  @Param({"steady", "flicker"})
+  public String scene;
+
+  private Stabilizer<? super DetectedBarcode> stabilizer;
+  private List<DetectedBarcode> full;
+  private List<DetectedBarcode> partial;
+  private List<DetectedBarcode> last;
+  private long frame = 0;
+
+  @Setup
+  public void setUp() {
+    stabilizer = VotingStabilizer.MODE.equals(mode)
+        ? new VotingStabilizer<>(DetectedBarcode::new, 10, 0.6, 0)
+        : new StabilityCheck(5);
+    full = Fixtures.detected(Fixtures.barcodes(barcodes, Barcode.FORMAT_QR_CODE));
+    partial = "flicker".equals(scene) ? new ArrayList<>(full.subList(0, barcodes - 1)) : full;
+    last = full;
+  }
+
+  @Benchmark
+  public boolean update() {
+    List<DetectedBarcode> current = (frame & 1) == 0 ? full : partial;
+    boolean stable = stabilizer.update(current, last, frame++ * 33);
+    last = current;
+    return stable;
+  }
+}
@@ -0,0 +1,53 @@
+package com.biso.cordova.plugins.mlkit.barcode.scanner.benchmarks;
+
+import android.graphics.RectF;
+import com.biso.cordova.plugins.mlkit.barcode.scanner.Utils;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Scan area geometry, calculated whenever the overlay is laid out and when the settings are read.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UtilsBenchmark {
+
+  @Param({"1:1", "16:9", "invalid"})
+  public String aspectRatio;
+
+  public int width = Fixtures.SURFACE_WIDTH;
+  public int height = Fixtures.SURFACE_HEIGHT;
+  public double detectorSize = 0.8;
+
+  private float ratio;
+
+  @Setup
+  public void setUp() {
+    // parsed once like the settings do, invalid strings fall back to the default ratio
+    ratio = Utils.getAspectRatioFromString(aspectRatio);
+  }
+
+  @Benchmark
+  public RectF calculateRectF() {
+    return Utils.calculateRectF(height, width, detectorSize, ratio);
+  }
+
+  @Benchmark
+  public float getAspectRatioFromString() {
+    return Utils.getAspectRatioFromString(aspectRatio);
+  }
+}
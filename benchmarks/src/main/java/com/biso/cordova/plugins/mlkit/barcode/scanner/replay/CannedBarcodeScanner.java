@@ -0,0 +1,48 @@
+package com.biso.cordova.plugins.mlkit.barcode.scanner.replay;
+
+import android.os.SystemClock;
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import com.google.mlkit.vision.barcode.BarcodeScanner;
+import com.google.mlkit.vision.barcode.common.Barcode;
+import com.google.mlkit.vision.common.InputImage;
+import java.util.List;
+
+/**
+ * Stands in for the detector during a replay. Returns the barcodes recorded for the current frame
+ * and moves the clock forward by the recorded detector latency, so everything after the detector
+ * sees the same times as on the device.
+ */
+class CannedBarcodeScanner implements BarcodeScanner {
+
+  private Recording.Frame frame;
+  private long processCalled = -1;
+
+  /**
+   * @param frame the frame that is analyzed next
+   */
+  void setFrame(Recording.Frame frame) {
+    this.frame = frame;
+    processCalled = -1;
+  }
+
+  /**
+   * @return System.nanoTime() when the analyzer called the detector for the current frame, -1 if
+   * it didn't
+   */
+  long getProcessCalled() {
+    return processCalled;
+  }
+
+  @Override
+  public Task<List<Barcode>> process(InputImage image) {
+    processCalled = System.nanoTime();
+    SystemClock.setElapsedRealtime(SystemClock.elapsedRealtime() + frame.getLatency());
+    return Tasks.forResult(frame.getBarcodes());
+  }
+
+  @Override
+  public void close() {
+    // nothing to release
+  }
+}
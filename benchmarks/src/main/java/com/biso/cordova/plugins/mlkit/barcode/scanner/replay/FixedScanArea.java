@@ -0,0 +1,31 @@
+package com.biso.cordova.plugins.mlkit.barcode.scanner.replay;
+
+import android.graphics.RectF;
+import com.biso.cordova.plugins.mlkit.barcode.scanner.ScanAreaSource;
+import com.biso.cordova.plugins.mlkit.barcode.scanner.ScannerSettings;
+import com.biso.cordova.plugins.mlkit.barcode.scanner.Utils;
+
+/**
+ * The scan area of an overlay with a fixed size, calculated the same way the camera overlay does.
+ */
+public class FixedScanArea implements ScanAreaSource {
+
+  private final RectF surfaceArea;
+  private final RectF scanArea;
+
+  public FixedScanArea(ScannerSettings settings, int width, int height) {
+    surfaceArea = new RectF(0, 0, width, height);
+    scanArea = Utils.calculateRectF(height, width, settings.getDetectorSize(),
+        settings.getAspectRatioF());
+  }
+
+  @Override
+  public RectF getScanArea() {
+    return scanArea;
+  }
+
+  @Override
+  public RectF getSurfaceArea() {
+    return surfaceArea;
+  }
+}
@@ -0,0 +1,183 @@
+package com.biso.cordova.plugins.mlkit.barcode.scanner.replay;
+
+import android.graphics.Rect;
+import com.google.mlkit.vision.barcode.common.Barcode;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+/**
+ * A scan recorded on a device: the camera frames and what the detector found in each of them. A
+ * recording is a directory with a {@value #FILE_NAME} like this:
+ * <pre>
+ * {
+ *   "settings": {"barcodeFormats": 256, "stableThreshold": 3},
+ *   "surface": {"width": 720, "height": 1280},
+ *   "frames": [
+ *     {"timestamp": 0, "width": 1280, "height": 720, "rotation": 90, "latency": 38,
+ *      "luminance": "frame-0000.y",
+ *      "barcodes": [{"value": "4006381333931", "format": 32, "box": [160, 600, 560, 680]}]}
+ *   ]
+ * }
+ * </pre>
+ * <ul>
+ *   <li>settings: the scan options, as passed to the plugin</li>
+ *   <li>surface: size of the overlay the preview was shown in</li>
+ *   <li>timestamp: time the frame was captured at, in milliseconds since the start of the
+ *   recording</li>
+ *   <li>width, height, rotation: size and rotation of the camera buffer</li>
+ *   <li>latency: time the detector needed for the frame, in milliseconds</li>
+ *   <li>luminance: optional file with the Y plane of the frame, width x height bytes without
+ *   padding. Only needed if the frame quality gate is enabled, mid gray is used otherwise</li>
+ *   <li>barcodes: what the detector returned, boxes in the coordinates of the image the detector
+ *   got, so relative to the crop if the frame was cropped to the scan area</li>
+ * </ul>
+ */
+public class Recording {
+
+  public static final String FILE_NAME = "recording.json";
+
+  private final JSONObject settings;
+  private final int surfaceWidth;
+  private final int surfaceHeight;
+  private final List<Frame> frames;
+
+  public Recording(JSONObject settings, int surfaceWidth, int surfaceHeight, List<Frame> frames) {
+    this.settings = settings;
+    this.surfaceWidth = surfaceWidth;
+    this.surfaceHeight = surfaceHeight;
+    this.frames = Collections.unmodifiableList(new ArrayList<>(frames));
+  }
+
+  /**
+   * @param directory directory with the recording
+   * @return the recording, luminance planes are loaded right away
+   * @throws IOException   if a file can't be read
+   * @throws JSONException if the recording isn't valid
+   */
+  public static Recording load(File directory) throws IOException, JSONException {
+    byte[] content = Files.readAllBytes(new File(directory, FILE_NAME).toPath());
+    JSONObject json = new JSONObject(new String(content, StandardCharsets.UTF_8));
+    JSONObject surface = json.getJSONObject("surface");
+    JSONArray recordedFrames = json.getJSONArray("frames");
+    List<Frame> frames = new ArrayList<>(recordedFrames.length());
+    for (int i = 0; i < recordedFrames.length(); i++) {
+      frames.add(Frame.fromJson(directory, recordedFrames.getJSONObject(i)));
+    }
+    return new Recording(json.optJSONObject("settings") != null ? json.getJSONObject("settings")
+        : new JSONObject(), surface.getInt("width"), surface.getInt("height"), frames);
+  }
+
+  public JSONObject getSettings() {
+    return settings;
+  }
+
+  public int getSurfaceWidth() {
+    return surfaceWidth;
+  }
+
+  public int getSurfaceHeight() {
+    return surfaceHeight;
+  }
+
+  public List<Frame> getFrames() {
+    return frames;
+  }
+
+  /**
+   * One recorded camera frame with the canned detector result.
+   */
+  public static class Frame {
+
+    private final long timestamp;
+    private final int width;
+    private final int height;
+    private final int rotation;
+    private final long latency;
+    private final byte[] luminance;
+    private final List<Barcode> barcodes;
+
+    /**
+     * @param timestamp time the frame was captured at in milliseconds
+     * @param width     width of the camera buffer
+     * @param height    height of the camera buffer
+     * @param rotation  rotation needed to show the buffer upright
+     * @param latency   time the detector needed in milliseconds
+     * @param luminance Y plane of the frame, null for mid gray
+     * @param barcodes  barcodes the detector returned
+     */
+    public Frame(long timestamp, int width, int height, int rotation, long latency,
+        byte[] luminance, List<Barcode> barcodes) {
+      this.timestamp = timestamp;
+      this.width = width;
+      this.height = height;
+      this.rotation = rotation;
+      this.latency = latency;
+      this.luminance = luminance;
+      this.barcodes = Collections.unmodifiableList(new ArrayList<>(barcodes));
+    }
+
+    private static Frame fromJson(File directory, JSONObject json)
+        throws IOException, JSONException {
+      int width = json.getInt("width");
+      int height = json.getInt("height");
+      byte[] luminance = null;
+      String luminanceFile = json.optString("luminance", null);
+      if (luminanceFile != null) {
+        luminance = Files.readAllBytes(new File(directory, luminanceFile).toPath());
+        if (luminance.length != width * height) {
+          throw new IOException(luminanceFile + " doesn't have " + width + "x" + height + " bytes");
+        }
+      }
+
+      JSONArray detected = json.optJSONArray("barcodes");
+      List<Barcode> barcodes = new ArrayList<>();
+      for (int i = 0; detected != null && i < detected.length(); i++) {
+        JSONObject barcode = detected.getJSONObject(i);
+        JSONArray box = barcode.getJSONArray("box");
+        String value = barcode.getString("value");
+        barcodes.add(new Barcode(barcode.getInt("format"),
+            barcode.optInt("type", Barcode.TYPE_TEXT), value,
+            value.getBytes(StandardCharsets.UTF_8),
+            new Rect(box.getInt(0), box.getInt(1), box.getInt(2), box.getInt(3))));
+      }
+      return new Frame(json.getLong("timestamp"), width, height, json.optInt("rotation"),
+          json.optLong("latency"), luminance, barcodes);
+    }
+
+    public long getTimestamp() {
+      return timestamp;
+    }
+
+    public int getWidth() {
+      return width;
+    }
+
+    public int getHeight() {
+      return height;
+    }
+
+    public int getRotation() {
+      return rotation;
+    }
+
+    public long getLatency() {
+      return latency;
+    }
+
+    public byte[] getLuminance() {
+      return luminance;
+    }
+
+    public List<Barcode> getBarcodes() {
+      return barcodes;
+    }
+  }
+}
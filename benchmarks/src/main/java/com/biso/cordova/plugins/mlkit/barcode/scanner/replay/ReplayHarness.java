@@ -0,0 +1,226 @@
+package com.biso.cordova.plugins.mlkit.barcode.scanner.replay;
+
+import static com.biso.cordova.plugins.mlkit.barcode.scanner.BarcodeAnalyzer.RESULT;
+
+import android.content.Intent;
+import android.os.SystemClock;
+import androidx.camera.core.ImageAnalysis;
+import com.biso.cordova.plugins.mlkit.barcode.scanner.AnalysisPolicy;
+import com.biso.cordova.plugins.mlkit.barcode.scanner.BarcodeAnalyzer;
+import com.biso.cordova.plugins.mlkit.barcode.scanner.ScanMetrics;
+import com.biso.cordova.plugins.mlkit.barcode.scanner.ScannerSettings;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+/**
+ * Replays a recorded scan through the real analyzer, without a device: frames go through the
+ * analysis policy, the frame quality gate, the crop, a canned detector with the recorded results
+ * and latencies, and the whole post processing. The clock follows the recording, so stabilization
+ * and time to result come out as they would on the device, no matter how fast the replay runs.
+ * <p>
+ * Frames that arrive while the recorded detector latency is still running are dropped like the
+ * camera drops them with the keep only latest strategy. Single scans end with the first result,
+ * continuous and batch scans replay all frames.
+ * <p>
+ * Usage: {@code ReplayHarness <recording directory> [--warmup <replays>]}, prints the report as
+ * json. Warm up replays are run before the reported one, so the measured stage latencies aren't
+ * dominated by the JIT compiler.
+ */
+public class ReplayHarness {
+
+  private final Recording recording;
+
+  public ReplayHarness(Recording recording) {
+    this.recording = recording;
+  }
+
+  public static void main(String[] args) throws IOException, JSONException {
+    if (args.length != 1 && (args.length != 3 || !"--warmup".equals(args[1]))) {
+      System.err.println("usage: ReplayHarness <recording directory> [--warmup <replays>]");
+      System.exit(2);
+    }
+    ReplayHarness harness = new ReplayHarness(Recording.load(new File(args[0])));
+    int warmup = args.length == 3 ? Integer.parseInt(args[2]) : 0;
+    for (int i = 0; i < warmup; i++) {
+      harness.replay();
+    }
+    System.out.println(harness.replay().toJson().toString(2));
+  }
+
+  /**
+   * Replays the recording once.
+   *
+   * @return what happened
+   * @throws JSONException if the metrics can't be created
+   */
+  public Report replay() throws JSONException {
+    ScannerSettings settings = new ScannerSettings(recording.getSettings());
+    List<Recording.Frame> frames = recording.getFrames();
+    Report report = new Report(frames.size());
+    if (frames.isEmpty()) {
+      return report;
+    }
+
+    long start = frames.get(0).getTimestamp();
+    SystemClock.setElapsedRealtime(start);
+    try {
+      ScanMetrics metrics = new ScanMetrics();
+      metrics.onCameraBound();
+      AnalysisPolicy analysisPolicy = new AnalysisPolicy(settings);
+      CannedBarcodeScanner scanner = new CannedBarcodeScanner();
+      TimingExecutor postProcessor = new TimingExecutor();
+      boolean single = !settings.isContinuousMode() && !settings.isBatchMode();
+      boolean dropWhileBusy =
+          analysisPolicy.getBackpressureStrategy() == ImageAnalysis.STRATEGY_KEEP_ONLY_LATEST;
+      int[] frameIndex = new int[1];
+      BarcodeAnalyzer analyzer = new BarcodeAnalyzer(settings, data -> report.onResult(data,
+          frameIndex[0], SystemClock.elapsedRealtime() - start), new FixedScanArea(settings,
+          recording.getSurfaceWidth(), recording.getSurfaceHeight()), analysisPolicy, metrics,
+          scanner, postProcessor);
+
+      long busyUntil = start;
+      for (int i = 0; i < frames.size(); i++) {
+        Recording.Frame frame = frames.get(i);
+        if (dropWhileBusy && i + 1 < frames.size()
+            && frames.get(i + 1).getTimestamp() <= busyUntil) {
+          // a newer frame is already waiting once the analyzer is free again
+          report.framesSkipped++;
+          continue;
+        }
+        frameIndex[0] = i;
+        SystemClock.setElapsedRealtime(Math.max(frame.getTimestamp(), busyUntil));
+        scanner.setFrame(frame);
+        ReplayImageProxy imageProxy = new ReplayImageProxy(frame);
+
+        long analyzeStart = System.nanoTime();
+        analyzer.analyze(imageProxy);
+        if (scanner.getProcessCalled() >= 0) {
+          report.preDetection.add(scanner.getProcessCalled() - analyzeStart);
+          report.detection.add(frame.getLatency());
+          report.postProcessing.add(postProcessor.takeElapsed());
+        }
+        busyUntil = SystemClock.elapsedRealtime();
+        report.framesDelivered++;
+        if (!imageProxy.isClosed()) {
+          report.framesLeftOpen++;
+        }
+        if (single && !report.results.isEmpty()) {
+          break;
+        }
+      }
+      analyzer.close();
+      report.metrics = metrics.onResult();
+    } finally {
+      SystemClock.setElapsedRealtime(-1);
+    }
+    return report;
+  }
+
+  /**
+   * Outcome of a replay. Pre detection and post processing are measured in real time on this
+   * machine, detection is the recorded latency.
+   */
+  public static class Report {
+
+    private final int frames;
+    private final StageTimer preDetection = new StageTimer();
+    private final StageTimer detection = new StageTimer();
+    private final StageTimer postProcessing = new StageTimer();
+    private final List<String> results = new ArrayList<>();
+    private int framesDelivered = 0;
+    private int framesSkipped = 0;
+    private int framesLeftOpen = 0;
+    private int framesConsumed = -1;
+    private long timeToFirstResult = -1;
+    private JSONObject metrics;
+
+    private Report(int frames) {
+      this.frames = frames;
+    }
+
+    private void onResult(Intent data, int frameIndex, long time) {
+      if (results.isEmpty()) {
+        framesConsumed = frameIndex + 1;
+        timeToFirstResult = time;
+      }
+      results.add(data.getStringExtra(RESULT));
+    }
+
+    /**
+     * @return replay time from the first frame to the first result in milliseconds, -1 if there
+     * was none
+     */
+    public long getTimeToFirstResult() {
+      return timeToFirstResult;
+    }
+
+    /**
+     * @return number of recorded frames up to the one that led to the first result, -1 if there
+     * was none
+     */
+    public int getFramesConsumed() {
+      return framesConsumed;
+    }
+
+    /**
+     * @return number of frames passed to the analyzer
+     */
+    public int getFramesDelivered() {
+      return framesDelivered;
+    }
+
+    /**
+     * @return number of frames the camera would have dropped because the analyzer was busy
+     */
+    public int getFramesSkipped() {
+      return framesSkipped;
+    }
+
+    /**
+     * @return number of frames the analyzer never closed, anything but 0 stalls the camera
+     */
+    public int getFramesLeftOpen() {
+      return framesLeftOpen;
+    }
+
+    /**
+     * @return the results as reported to the plugin, json arrays of barcodes
+     */
+    public List<String> getResults() {
+      return results;
+    }
+
+    /**
+     * @return number of frames that reached the detector
+     */
+    public int getFramesDetected() {
+      return detection.getCount();
+    }
+
+    public JSONObject toJson() throws JSONException {
+      JSONArray reported = new JSONArray();
+      for (String result : results) {
+        reported.put(new JSONArray(result));
+      }
+      JSONObject json = new JSONObject();
+      json.put("frames", frames);
+      json.put("framesDelivered", framesDelivered);
+      json.put("framesSkipped", framesSkipped);
+      json.put("framesConsumed", framesConsumed);
+      json.put("timeToFirstResult", timeToFirstResult);
+      json.put("preDetectionMicros", preDetection.toJson(1000));
+      json.put("detectionMillis", detection.toJson(1));
+      json.put("postProcessingMicros", postProcessing.toJson(1000));
+      if (metrics != null) {
+        json.put("metrics", metrics);
+      }
+      json.put("results", reported);
+      return json;
+    }
+  }
+}
@@ -0,0 +1,117 @@
+package com.biso.cordova.plugins.mlkit.barcode.scanner.replay;
+
+import android.graphics.ImageFormat;
+import android.media.Image;
+import androidx.camera.core.ImageInfo;
+import androidx.camera.core.ImageProxy;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * A recorded frame as YUV_420_888 image, the way CameraX delivers camera frames to the analyzer.
+ * Chroma is always neutral, the analyzer only looks at the luminance.
+ */
+class ReplayImageProxy implements ImageProxy, ImageInfo {
+
+  private static final byte GRAY = (byte) 128;
+
+  private final Recording.Frame frame;
+  private final PlaneProxy[] planes;
+  private final Image image;
+  private boolean closed = false;
+
+  ReplayImageProxy(Recording.Frame frame) {
+    this.frame = frame;
+    int width = frame.getWidth();
+    int height = frame.getHeight();
+    byte[] luminance = frame.getLuminance();
+    if (luminance == null) {
+      luminance = new byte[width * height];
+      Arrays.fill(luminance, GRAY);
+    }
+    byte[] chroma = new byte[(width / 2) * (height / 2)];
+    Arrays.fill(chroma, GRAY);
+    planes = new PlaneProxy[]{
+        new Plane(ByteBuffer.wrap(luminance), width),
+        new Plane(ByteBuffer.wrap(chroma), width / 2),
+        new Plane(ByteBuffer.wrap(chroma.clone()), width / 2)
+    };
+    image = new Image(width, height);
+  }
+
+  boolean isClosed() {
+    return closed;
+  }
+
+  @Override
+  public void close() {
+    closed = true;
+  }
+
+  @Override
+  public int getFormat() {
+    return ImageFormat.YUV_420_888;
+  }
+
+  @Override
+  public int getWidth() {
+    return frame.getWidth();
+  }
+
+  @Override
+  public int getHeight() {
+    return frame.getHeight();
+  }
+
+  @Override
+  public PlaneProxy[] getPlanes() {
+    return planes;
+  }
+
+  @Override
+  public ImageInfo getImageInfo() {
+    return this;
+  }
+
+  @Override
+  public Image getImage() {
+    return image;
+  }
+
+  @Override
+  public long getTimestamp() {
+    // CameraX timestamps are in nanoseconds
+    return frame.getTimestamp() * 1_000_000;
+  }
+
+  @Override
+  public int getRotationDegrees() {
+    return frame.getRotation();
+  }
+
+  private static class Plane implements PlaneProxy {
+
+    private final ByteBuffer buffer;
+    private final int rowStride;
+
+    private Plane(ByteBuffer buffer, int rowStride) {
+      this.buffer = buffer;
+      this.rowStride = rowStride;
+    }
+
+    @Override
+    public int getRowStride() {
+      return rowStride;
+    }
+
+    @Override
+    public int getPixelStride() {
+      return 1;
+    }
+
+    @Override
+    public ByteBuffer getBuffer() {
+      return buffer;
+    }
+  }
+}
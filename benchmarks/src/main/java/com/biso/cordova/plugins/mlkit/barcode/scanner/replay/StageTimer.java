@@ -0,0 +1,48 @@
+package com.biso.cordova.plugins.mlkit.barcode.scanner.replay;
+
+import java.util.Arrays;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+/**
+ * Collects the durations of one stage of the pipeline over a replay.
+ */
+class StageTimer {
+
+  private long[] samples = new long[256];
+  private int count = 0;
+
+  void add(long duration) {
+    if (count == samples.length) {
+      samples = Arrays.copyOf(samples, count * 2);
+    }
+    samples[count++] = duration;
+  }
+
+  int getCount() {
+    return count;
+  }
+
+  /**
+   * @param divisor the samples are divided by this, e.g. 1000 to turn nanoseconds into
+   *                microseconds
+   * @return p50, p95 and max of the samples, -1 if there are none
+   */
+  JSONObject toJson(long divisor) throws JSONException {
+    long[] sorted = Arrays.copyOf(samples, count);
+    Arrays.sort(sorted);
+    return new JSONObject()
+        .put("p50", percentile(sorted, 0.5, divisor))
+        .put("p95", percentile(sorted, 0.95, divisor))
+        .put("max", percentile(sorted, 1, divisor))
+        .put("samples", count);
+  }
+
+  private static double percentile(long[] sorted, double percentile, long divisor) {
+    if (sorted.length == 0) {
+      return -1;
+    }
+    int index = (int) Math.ceil(percentile * sorted.length) - 1;
+    return (double) sorted[Math.max(0, Math.min(sorted.length - 1, index))] / divisor;
+  }
+}
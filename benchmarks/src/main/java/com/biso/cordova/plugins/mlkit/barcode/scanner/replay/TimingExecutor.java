@@ -0,0 +1,65 @@
+package com.biso.cordova.plugins.mlkit.barcode.scanner.replay;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the post processing stage right away on the calling thread, so a replay is deterministic,
+ * and measures how long it takes.
+ */
+class TimingExecutor extends AbstractExecutorService {
+
+  private volatile boolean shutdown = false;
+  private long elapsed = 0;
+
+  /**
+   * @return nanoseconds spent in commands since the last call
+   */
+  long takeElapsed() {
+    long taken = elapsed;
+    elapsed = 0;
+    return taken;
+  }
+
+  @Override
+  public void execute(Runnable command) {
+    if (shutdown) {
+      throw new RejectedExecutionException("executor is shut down");
+    }
+    long start = System.nanoTime();
+    try {
+      command.run();
+    } finally {
+      elapsed += System.nanoTime() - start;
+    }
+  }
+
+  @Override
+  public void shutdown() {
+    shutdown = true;
+  }
+
+  @Override
+  public List<Runnable> shutdownNow() {
+    shutdown = true;
+    return Collections.emptyList();
+  }
+
+  @Override
+  public boolean isShutdown() {
+    return shutdown;
+  }
+
+  @Override
+  public boolean isTerminated() {
+    return shutdown;
+  }
+
+  @Override
+  public boolean awaitTermination(long timeout, TimeUnit unit) {
+    return shutdown;
+  }
+}
@@ -0,0 +1,15 @@
+package android.content;
+
+import android.net.Uri;
+import java.io.FileNotFoundException;
+import java.io.InputStream;
+
+/**
+ * JVM stand-in for the Android class, there are no content providers to open uris with.
+ */
+public class ContentResolver {
+
+  public final InputStream openInputStream(Uri uri) throws FileNotFoundException {
+    throw new FileNotFoundException("no content provider for " + uri);
+  }
+}
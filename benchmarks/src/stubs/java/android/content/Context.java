@@ -0,0 +1,23 @@
+package android.content;
+
+import java.io.File;
+
+/**
+ * JVM stand-in for the Android class, app storage is a plain directory and no uris can be opened.
+ */
+public class Context {
+
+  private final File filesDir;
+
+  public Context(File filesDir) {
+    this.filesDir = filesDir;
+  }
+
+  public File getFilesDir() {
+    return filesDir;
+  }
+
+  public ContentResolver getContentResolver() {
+    return new ContentResolver();
+  }
+}
@@ -0,0 +1,36 @@
+package android.content;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * JVM stand-in for the Android class, only the extras are supported.
+ */
+public class Intent {
+
+  private final Map<String, Object> extras = new HashMap<>();
+
+  public Intent putExtra(String name, String value) {
+    extras.put(name, value);
+    return this;
+  }
+
+  public Intent putExtra(String name, int value) {
+    extras.put(name, value);
+    return this;
+  }
+
+  public boolean hasExtra(String name) {
+    return extras.containsKey(name);
+  }
+
+  public String getStringExtra(String name) {
+    Object value = extras.get(name);
+    return value instanceof String ? (String) value : null;
+  }
+
+  public int getIntExtra(String name, int defaultValue) {
+    Object value = extras.get(name);
+    return value instanceof Integer ? (Integer) value : defaultValue;
+  }
+}
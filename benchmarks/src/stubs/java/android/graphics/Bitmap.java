@@ -0,0 +1,35 @@
+package android.graphics;
+
+/**
+ * JVM stand-in for the Android class, holds no pixels.
+ */
+public class Bitmap {
+
+  private final int width;
+  private final int height;
+
+  private Bitmap(int width, int height) {
+    this.width = width;
+    this.height = height;
+  }
+
+  public static Bitmap createBitmap(int width, int height, Config config) {
+    return new Bitmap(width, height);
+  }
+
+  public int getWidth() {
+    return width;
+  }
+
+  public int getHeight() {
+    return height;
+  }
+
+  public void recycle() {
+    // nothing to free
+  }
+
+  public enum Config {
+    ALPHA_8, RGB_565, ARGB_8888
+  }
+}
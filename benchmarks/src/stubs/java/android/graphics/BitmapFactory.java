@@ -0,0 +1,46 @@
+package android.graphics;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * JVM stand-in for the Android class. There are no codecs, any data that isn't empty decodes to a
+ * one by one image.
+ */
+public class BitmapFactory {
+
+  public static Bitmap decodeByteArray(byte[] data, int offset, int length, Options opts) {
+    return decode(length, opts);
+  }
+
+  public static Bitmap decodeStream(InputStream is, Rect outPadding, Options opts) {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    byte[] buffer = new byte[4096];
+    try {
+      for (int read = is.read(buffer); read != -1; read = is.read(buffer)) {
+        out.write(buffer, 0, read);
+      }
+    } catch (IOException e) {
+      return null;
+    }
+    return decode(out.size(), opts);
+  }
+
+  private static Bitmap decode(int length, Options opts) {
+    if (length == 0) {
+      return null;
+    }
+    opts.outWidth = 1;
+    opts.outHeight = 1;
+    return opts.inJustDecodeBounds ? null : Bitmap.createBitmap(1, 1, Bitmap.Config.ARGB_8888);
+  }
+
+  public static class Options {
+
+    public boolean inJustDecodeBounds;
+    public int inSampleSize;
+    public int outWidth;
+    public int outHeight;
+  }
+}
@@ -0,0 +1,145 @@
+package android.graphics;
+
+/**
+ * JVM stand-in for the Android class. Only affine transformations are supported, which is all the
+ * plugin uses.
+ */
+public class Matrix {
+
+  // | scaleX skewX  transX |
+  // | skewY  scaleY transY |
+  private float scaleX = 1;
+  private float skewX = 0;
+  private float transX = 0;
+  private float skewY = 0;
+  private float scaleY = 1;
+  private float transY = 0;
+
+  public Matrix() {
+  }
+
+  public Matrix(Matrix m) {
+    set(m);
+  }
+
+  public void reset() {
+    setValues(1, 0, 0, 0, 1, 0);
+  }
+
+  public void set(Matrix m) {
+    setValues(m.scaleX, m.skewX, m.transX, m.skewY, m.scaleY, m.transY);
+  }
+
+  public boolean isIdentity() {
+    return scaleX == 1 && skewX == 0 && transX == 0 && skewY == 0 && scaleY == 1 && transY == 0;
+  }
+
+  public void setScale(float sx, float sy) {
+    setValues(sx, 0, 0, 0, sy, 0);
+  }
+
+  public void setTranslate(float dx, float dy) {
+    setValues(1, 0, dx, 0, 1, dy);
+  }
+
+  public void setRotate(float degrees, float px, float py) {
+    double radians = Math.toRadians(degrees);
+    float sin = (float) Math.sin(radians);
+    float cos = (float) Math.cos(radians);
+    setValues(cos, -sin, px - cos * px + sin * py, sin, cos, py - sin * px - cos * py);
+  }
+
+  public boolean preTranslate(float dx, float dy) {
+    transX += scaleX * dx + skewX * dy;
+    transY += skewY * dx + scaleY * dy;
+    return true;
+  }
+
+  public boolean postTranslate(float dx, float dy) {
+    transX += dx;
+    transY += dy;
+    return true;
+  }
+
+  public boolean setRectToRect(RectF src, RectF dst, ScaleToFit stf) {
+    if (src.isEmpty()) {
+      reset();
+      return false;
+    }
+    float sx = dst.width() / src.width();
+    float sy = dst.height() / src.height();
+    if (stf == ScaleToFit.FILL) {
+      setValues(sx, 0, dst.left - src.left * sx, 0, sy, dst.top - src.top * sy);
+      return true;
+    }
+    float scale = Math.min(sx, sy);
+    float dx = dst.width() - src.width() * scale;
+    float dy = dst.height() - src.height() * scale;
+    if (stf == ScaleToFit.CENTER) {
+      dx /= 2;
+      dy /= 2;
+    } else if (stf == ScaleToFit.START) {
+      dx = 0;
+      dy = 0;
+    }
+    setValues(scale, 0, dst.left - src.left * scale + dx, 0, scale,
+        dst.top - src.top * scale + dy);
+    return true;
+  }
+
+  public boolean invert(Matrix inverse) {
+    float determinant = scaleX * scaleY - skewX * skewY;
+    if (determinant == 0) {
+      return false;
+    }
+    float a = scaleY / determinant;
+    float b = -skewX / determinant;
+    float c = -skewY / determinant;
+    float d = scaleX / determinant;
+    inverse.setValues(a, b, -(a * transX + b * transY), c, d, -(c * transX + d * transY));
+    return true;
+  }
+
+  public void mapPoints(float[] points) {
+    for (int i = 0; i + 1 < points.length; i += 2) {
+      float x = points[i];
+      float y = points[i + 1];
+      points[i] = scaleX * x + skewX * y + transX;
+      points[i + 1] = skewY * x + scaleY * y + transY;
+    }
+  }
+
+  public boolean mapRect(RectF rect) {
+    return mapRect(rect, rect);
+  }
+
+  public boolean mapRect(RectF dst, RectF src) {
+    float x0 = scaleX * src.left + skewX * src.top + transX;
+    float y0 = skewY * src.left + scaleY * src.top + transY;
+    float x1 = scaleX * src.right + skewX * src.top + transX;
+    float y1 = skewY * src.right + scaleY * src.top + transY;
+    float x2 = scaleX * src.left + skewX * src.bottom + transX;
+    float y2 = skewY * src.left + scaleY * src.bottom + transY;
+    float x3 = scaleX * src.right + skewX * src.bottom + transX;
+    float y3 = skewY * src.right + scaleY * src.bottom + transY;
+    dst.set(Math.min(Math.min(x0, x1), Math.min(x2, x3)),
+        Math.min(Math.min(y0, y1), Math.min(y2, y3)),
+        Math.max(Math.max(x0, x1), Math.max(x2, x3)),
+        Math.max(Math.max(y0, y1), Math.max(y2, y3)));
+    return skewX == 0 && skewY == 0;
+  }
+
+  private void setValues(float scaleX, float skewX, float transX, float skewY, float scaleY,
+      float transY) {
+    this.scaleX = scaleX;
+    this.skewX = skewX;
+    this.transX = transX;
+    this.skewY = skewY;
+    this.scaleY = scaleY;
+    this.transY = transY;
+  }
+
+  public enum ScaleToFit {
+    FILL, START, CENTER, END
+  }
+}
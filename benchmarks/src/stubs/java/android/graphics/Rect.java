@@ -0,0 +1,109 @@
+package android.graphics;
+
+/**
+ * JVM stand-in for the Android class, behaves like the original for the methods the plugin uses.
+ */
+public class Rect {
+
+  public int left;
+  public int top;
+  public int right;
+  public int bottom;
+
+  public Rect() {
+  }
+
+  public Rect(int left, int top, int right, int bottom) {
+    set(left, top, right, bottom);
+  }
+
+  public Rect(Rect r) {
+    set(r);
+  }
+
+  public int width() {
+    return right - left;
+  }
+
+  public int height() {
+    return bottom - top;
+  }
+
+  public int centerX() {
+    return (left + right) >> 1;
+  }
+
+  public int centerY() {
+    return (top + bottom) >> 1;
+  }
+
+  public boolean isEmpty() {
+    return left >= right || top >= bottom;
+  }
+
+  public void set(int left, int top, int right, int bottom) {
+    this.left = left;
+    this.top = top;
+    this.right = right;
+    this.bottom = bottom;
+  }
+
+  public void set(Rect r) {
+    set(r.left, r.top, r.right, r.bottom);
+  }
+
+  public void setEmpty() {
+    set(0, 0, 0, 0);
+  }
+
+  public void offset(int dx, int dy) {
+    left += dx;
+    top += dy;
+    right += dx;
+    bottom += dy;
+  }
+
+  public boolean intersect(int left, int top, int right, int bottom) {
+    if (this.left < right && left < this.right && this.top < bottom && top < this.bottom) {
+      set(Math.max(this.left, left), Math.max(this.top, top), Math.min(this.right, right),
+          Math.min(this.bottom, bottom));
+      return true;
+    }
+    return false;
+  }
+
+  public boolean intersect(Rect r) {
+    return intersect(r.left, r.top, r.right, r.bottom);
+  }
+
+  public boolean contains(Rect r) {
+    return left < right && top < bottom && left <= r.left && top <= r.top && right >= r.right
+        && bottom >= r.bottom;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    Rect r = (Rect) o;
+    return left == r.left && top == r.top && right == r.right && bottom == r.bottom;
+  }
+
+  @Override
+  public int hashCode() {
+    return 31 * (31 * (31 * left + top) + right) + bottom;
+  }
+
+  public String toShortString() {
+    return "[" + left + "," + top + "][" + right + "," + bottom + "]";
+  }
+
+  @Override
+  public String toString() {
+    return "Rect(" + left + ", " + top + " - " + right + ", " + bottom + ")";
+  }
+}
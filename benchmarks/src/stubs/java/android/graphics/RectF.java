@@ -0,0 +1,161 @@
+package android.graphics;
+
+/**
+ * JVM stand-in for the Android class, behaves like the original for the methods the plugin uses.
+ */
+public class RectF {
+
+  public float left;
+  public float top;
+  public float right;
+  public float bottom;
+
+  public RectF() {
+  }
+
+  public RectF(float left, float top, float right, float bottom) {
+    set(left, top, right, bottom);
+  }
+
+  public RectF(RectF r) {
+    set(r);
+  }
+
+  public RectF(Rect r) {
+    set(r);
+  }
+
+  public final float width() {
+    return right - left;
+  }
+
+  public final float height() {
+    return bottom - top;
+  }
+
+  public final float centerX() {
+    return (left + right) * 0.5f;
+  }
+
+  public final float centerY() {
+    return (top + bottom) * 0.5f;
+  }
+
+  public final boolean isEmpty() {
+    return left >= right || top >= bottom;
+  }
+
+  public void set(float left, float top, float right, float bottom) {
+    this.left = left;
+    this.top = top;
+    this.right = right;
+    this.bottom = bottom;
+  }
+
+  public void set(RectF r) {
+    set(r.left, r.top, r.right, r.bottom);
+  }
+
+  public void set(Rect r) {
+    set(r.left, r.top, r.right, r.bottom);
+  }
+
+  public void setEmpty() {
+    set(0, 0, 0, 0);
+  }
+
+  public void offset(float dx, float dy) {
+    left += dx;
+    top += dy;
+    right += dx;
+    bottom += dy;
+  }
+
+  public void inset(float dx, float dy) {
+    left += dx;
+    top += dy;
+    right -= dx;
+    bottom -= dy;
+  }
+
+  public boolean contains(float x, float y) {
+    return left < right && top < bottom && x >= left && x < right && y >= top && y < bottom;
+  }
+
+  public boolean contains(RectF r) {
+    return left < right && top < bottom && left <= r.left && top <= r.top && right >= r.right
+        && bottom >= r.bottom;
+  }
+
+  public boolean intersect(float left, float top, float right, float bottom) {
+    if (this.left < right && left < this.right && this.top < bottom && top < this.bottom) {
+      set(Math.max(this.left, left), Math.max(this.top, top), Math.min(this.right, right),
+          Math.min(this.bottom, bottom));
+      return true;
+    }
+    return false;
+  }
+
+  public boolean intersect(RectF r) {
+    return intersect(r.left, r.top, r.right, r.bottom);
+  }
+
+  public boolean setIntersect(RectF a, RectF b) {
+    if (a.left < b.right && b.left < a.right && a.top < b.bottom && b.top < a.bottom) {
+      set(Math.max(a.left, b.left), Math.max(a.top, b.top), Math.min(a.right, b.right),
+          Math.min(a.bottom, b.bottom));
+      return true;
+    }
+    return false;
+  }
+
+  public void union(RectF r) {
+    if (r.left >= r.right || r.top >= r.bottom) {
+      return;
+    }
+    if (left < right && top < bottom) {
+      set(Math.min(left, r.left), Math.min(top, r.top), Math.max(right, r.right),
+          Math.max(bottom, r.bottom));
+    } else {
+      set(r);
+    }
+  }
+
+  public void round(Rect dst) {
+    dst.set(Math.round(left), Math.round(top), Math.round(right), Math.round(bottom));
+  }
+
+  public void roundOut(Rect dst) {
+    dst.set((int) Math.floor(left), (int) Math.floor(top), (int) Math.ceil(right),
+        (int) Math.ceil(bottom));
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    RectF r = (RectF) o;
+    return left == r.left && top == r.top && right == r.right && bottom == r.bottom;
+  }
+
+  @Override
+  public int hashCode() {
+    int result = Float.floatToIntBits(left);
+    result = 31 * result + Float.floatToIntBits(top);
+    result = 31 * result + Float.floatToIntBits(right);
+    return 31 * result + Float.floatToIntBits(bottom);
+  }
+
+  public String toShortString() {
+    return "[" + left + "," + top + "][" + right + "," + bottom + "]";
+  }
+
+  @Override
+  public String toString() {
+    return "RectF(" + left + ", " + top + ", " + right + ", " + bottom + ")";
+  }
+}
@@ -0,0 +1,24 @@
+package android.media;
+
+/**
+ * JVM stand-in for the Android class. Frames that are replayed carry their pixels in the planes of
+ * the image proxy, the media image only tells the analyzer that there is a frame.
+ */
+public class Image {
+
+  private final int width;
+  private final int height;
+
+  public Image(int width, int height) {
+    this.width = width;
+    this.height = height;
+  }
+
+  public int getWidth() {
+    return width;
+  }
+
+  public int getHeight() {
+    return height;
+  }
+}
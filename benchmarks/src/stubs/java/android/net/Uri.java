@@ -0,0 +1,22 @@
+package android.net;
+
+/**
+ * JVM stand-in for the Android class, only keeps the string it was parsed from.
+ */
+public class Uri {
+
+  private final String uri;
+
+  private Uri(String uri) {
+    this.uri = uri;
+  }
+
+  public static Uri parse(String uriString) {
+    return new Uri(uriString);
+  }
+
+  @Override
+  public String toString() {
+    return uri;
+  }
+}
@@ -0,0 +1,78 @@
+package android.os;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JVM stand-in for the Android class, runs the posted runnables on the thread of the looper.
+ */
+public class Handler {
+
+  private final Looper looper;
+  private final List<Posted> posted = new ArrayList<>();
+
+  public Handler(Looper looper) {
+    this.looper = looper;
+  }
+
+  public final Looper getLooper() {
+    return looper;
+  }
+
+  public final boolean post(Runnable r) {
+    return postDelayed(r, 0);
+  }
+
+  public final boolean postDelayed(Runnable r, long delayMillis) {
+    Posted entry = new Posted(r);
+    synchronized (posted) {
+      posted.add(entry);
+      entry.future = looper.executor.schedule(entry, Math.max(0, delayMillis),
+          TimeUnit.MILLISECONDS);
+    }
+    return true;
+  }
+
+  public final void removeCallbacks(Runnable r) {
+    synchronized (posted) {
+      Iterator<Posted> iterator = posted.iterator();
+      while (iterator.hasNext()) {
+        Posted entry = iterator.next();
+        if (entry.runnable == r) {
+          entry.future.cancel(false);
+          iterator.remove();
+        }
+      }
+    }
+  }
+
+  public final void removeCallbacksAndMessages(Object token) {
+    synchronized (posted) {
+      for (Posted entry : posted) {
+        entry.future.cancel(false);
+      }
+      posted.clear();
+    }
+  }
+
+  private class Posted implements Runnable {
+
+    private final Runnable runnable;
+    private Future<?> future;
+
+    private Posted(Runnable runnable) {
+      this.runnable = runnable;
+    }
+
+    @Override
+    public void run() {
+      synchronized (posted) {
+        posted.remove(this);
+      }
+      runnable.run();
+    }
+  }
+}
@@ -0,0 +1,31 @@
+package android.os;
+
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+
+/**
+ * JVM stand-in for the Android class. There is only the main looper, a single daemon thread.
+ */
+public final class Looper {
+
+  private static final Looper MAIN = new Looper();
+  final ScheduledThreadPoolExecutor executor;
+  private volatile Thread thread;
+
+  private Looper() {
+    executor = new ScheduledThreadPoolExecutor(1, runnable -> {
+      Thread created = new Thread(runnable, "main");
+      created.setDaemon(true);
+      thread = created;
+      return created;
+    });
+    executor.setRemoveOnCancelPolicy(true);
+  }
+
+  public static Looper getMainLooper() {
+    return MAIN;
+  }
+
+  public static Looper myLooper() {
+    return Thread.currentThread() == MAIN.thread ? MAIN : null;
+  }
+}
@@ -0,0 +1,94 @@
+package android.os;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * JVM stand-in for the Android class. Values are kept as objects in the order they were written,
+ * the parcel is read from the start after {@link #setDataPosition(int)} with 0.
+ */
+public final class Parcel {
+
+  private final List<Object> values = new ArrayList<>();
+  private int position = 0;
+
+  private Parcel() {
+  }
+
+  public static Parcel obtain() {
+    return new Parcel();
+  }
+
+  public void recycle() {
+    values.clear();
+    position = 0;
+  }
+
+  public int dataPosition() {
+    return position;
+  }
+
+  public void setDataPosition(int position) {
+    this.position = position;
+  }
+
+  public void writeByte(byte value) {
+    values.add(value);
+  }
+
+  public void writeInt(int value) {
+    values.add(value);
+  }
+
+  public void writeLong(long value) {
+    values.add(value);
+  }
+
+  public void writeFloat(float value) {
+    values.add(value);
+  }
+
+  public void writeDouble(double value) {
+    values.add(value);
+  }
+
+  public void writeBoolean(boolean value) {
+    values.add(value);
+  }
+
+  public void writeString(String value) {
+    values.add(value);
+  }
+
+  public byte readByte() {
+    return (Byte) next();
+  }
+
+  public int readInt() {
+    return (Integer) next();
+  }
+
+  public long readLong() {
+    return (Long) next();
+  }
+
+  public float readFloat() {
+    return (Float) next();
+  }
+
+  public double readDouble() {
+    return (Double) next();
+  }
+
+  public boolean readBoolean() {
+    return (Boolean) next();
+  }
+
+  public String readString() {
+    return (String) next();
+  }
+
+  private Object next() {
+    return values.get(position++);
+  }
+}
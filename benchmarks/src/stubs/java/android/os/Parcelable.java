@@ -0,0 +1,18 @@
+package android.os;
+
+/**
+ * JVM stand-in for the Android interface.
+ */
+public interface Parcelable {
+
+  int describeContents();
+
+  void writeToParcel(Parcel dest, int flags);
+
+  interface Creator<T> {
+
+    T createFromParcel(Parcel source);
+
+    T[] newArray(int size);
+  }
+}
@@ -0,0 +1,16 @@
+package android.os;
+
+/**
+ * JVM stand-in for the Android class, thread priorities are ignored.
+ */
+public class Process {
+
+  public static final int THREAD_PRIORITY_DEFAULT = 0;
+  public static final int THREAD_PRIORITY_BACKGROUND = 10;
+  public static final int THREAD_PRIORITY_DISPLAY = -4;
+  public static final int THREAD_PRIORITY_URGENT_DISPLAY = -8;
+
+  public static void setThreadPriority(int priority) {
+    // the JVM has no equivalent of the Linux nice values
+  }
+}
@@ -0,0 +1,34 @@
+package android.os;
+
+/**
+ * JVM stand-in for the Android class. The clock runs in real time unless a replay pins it with
+ * {@link #setElapsedRealtime(long)}, so recorded frames are processed at their recorded times no
+ * matter how fast the replay runs.
+ */
+public final class SystemClock {
+
+  private static final long START = System.nanoTime();
+  private static volatile long pinned = -1;
+
+  private SystemClock() {
+  }
+
+  public static long elapsedRealtime() {
+    long time = pinned;
+    return time >= 0 ? time : (System.nanoTime() - START) / 1_000_000;
+  }
+
+  public static long uptimeMillis() {
+    return elapsedRealtime();
+  }
+
+  /**
+   * Only exists in the stand-in.
+   *
+   * @param time time returned by the clock from now on in milliseconds, -1 to run in real time
+   *             again
+   */
+  public static void setElapsedRealtime(long time) {
+    pinned = time;
+  }
+}
@@ -0,0 +1,13 @@
+package android.util;
+
+/**
+ * JVM stand-in for the Android class, backed by the decoder of the JDK.
+ */
+public class Base64 {
+
+  public static final int DEFAULT = 0;
+
+  public static byte[] decode(String str, int flags) {
+    return java.util.Base64.getMimeDecoder().decode(str);
+  }
+}
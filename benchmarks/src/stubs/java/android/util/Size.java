@@ -0,0 +1,45 @@
+package android.util;
+
+/**
+ * JVM stand-in for the Android class.
+ */
+public final class Size {
+
+  private final int width;
+  private final int height;
+
+  public Size(int width, int height) {
+    this.width = width;
+    this.height = height;
+  }
+
+  public int getWidth() {
+    return width;
+  }
+
+  public int getHeight() {
+    return height;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof Size)) {
+      return false;
+    }
+    Size other = (Size) o;
+    return width == other.width && height == other.height;
+  }
+
+  @Override
+  public int hashCode() {
+    return height ^ ((width << (Integer.SIZE / 2)) | (width >>> (Integer.SIZE / 2)));
+  }
+
+  @Override
+  public String toString() {
+    return width + "x" + height;
+  }
+}
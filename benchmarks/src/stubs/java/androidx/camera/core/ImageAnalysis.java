@@ -0,0 +1,18 @@
+package androidx.camera.core;
+
+/**
+ * JVM stand-in for the CameraX class, only the analyzer interface and constants.
+ */
+public final class ImageAnalysis {
+
+  public static final int STRATEGY_KEEP_ONLY_LATEST = 0;
+  public static final int STRATEGY_BLOCK_PRODUCER = 1;
+
+  private ImageAnalysis() {
+  }
+
+  public interface Analyzer {
+
+    void analyze(ImageProxy image);
+  }
+}
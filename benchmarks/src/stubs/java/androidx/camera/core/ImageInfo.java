@@ -0,0 +1,11 @@
+package androidx.camera.core;
+
+/**
+ * JVM stand-in for the CameraX interface.
+ */
+public interface ImageInfo {
+
+  long getTimestamp();
+
+  int getRotationDegrees();
+}
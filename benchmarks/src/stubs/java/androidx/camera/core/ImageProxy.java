@@ -0,0 +1,34 @@
+package androidx.camera.core;
+
+import android.media.Image;
+import java.nio.ByteBuffer;
+
+/**
+ * JVM stand-in for the CameraX interface.
+ */
+public interface ImageProxy extends AutoCloseable {
+
+  @Override
+  void close();
+
+  int getFormat();
+
+  int getWidth();
+
+  int getHeight();
+
+  PlaneProxy[] getPlanes();
+
+  ImageInfo getImageInfo();
+
+  Image getImage();
+
+  interface PlaneProxy {
+
+    int getRowStride();
+
+    int getPixelStride();
+
+    ByteBuffer getBuffer();
+  }
+}
@@ -0,0 +1,9 @@
+package com.google.android.gms.tasks;
+
+/**
+ * JVM stand-in for the Play services interface.
+ */
+public interface OnSuccessListener<T> {
+
+  void onSuccess(T result);
+}
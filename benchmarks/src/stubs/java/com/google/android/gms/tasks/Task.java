@@ -0,0 +1,27 @@
+package com.google.android.gms.tasks;
+
+import java.util.concurrent.Executor;
+
+/**
+ * JVM stand-in for the Play services class, only the methods the plugin uses.
+ */
+public abstract class Task<T> {
+
+  public abstract boolean isComplete();
+
+  public abstract boolean isSuccessful();
+
+  public abstract T getResult();
+
+  public abstract Exception getException();
+
+  public abstract Task<T> addOnCompleteListener(OnCompleteListener<T> listener);
+
+  public abstract Task<T> addOnCompleteListener(Executor executor,
+      OnCompleteListener<T> listener);
+
+  public abstract Task<T> addOnSuccessListener(Executor executor,
+      OnSuccessListener<? super T> listener);
+
+  public abstract Task<T> addOnFailureListener(Executor executor, OnFailureListener listener);
+}
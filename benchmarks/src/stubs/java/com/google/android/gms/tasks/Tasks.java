@@ -0,0 +1,89 @@
+package com.google.android.gms.tasks;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+
+/**
+ * JVM stand-in for the Play services class. Only completed tasks exist, listeners run right away
+ * on the executor they are added with.
+ */
+public final class Tasks {
+
+  private Tasks() {
+  }
+
+  public static <T> Task<T> forResult(T result) {
+    return new CompletedTask<>(result, null);
+  }
+
+  public static <T> Task<T> forException(Exception e) {
+    return new CompletedTask<>(null, e);
+  }
+
+  public static <T> T await(Task<T> task) throws ExecutionException {
+    if (!task.isSuccessful()) {
+      throw new ExecutionException(task.getException());
+    }
+    return task.getResult();
+  }
+
+  private static final class CompletedTask<T> extends Task<T> {
+
+    private final T result;
+    private final Exception exception;
+
+    private CompletedTask(T result, Exception exception) {
+      this.result = result;
+      this.exception = exception;
+    }
+
+    @Override
+    public boolean isComplete() {
+      return true;
+    }
+
+    @Override
+    public boolean isSuccessful() {
+      return exception == null;
+    }
+
+    @Override
+    public T getResult() {
+      return result;
+    }
+
+    @Override
+    public Exception getException() {
+      return exception;
+    }
+
+    @Override
+    public Task<T> addOnCompleteListener(OnCompleteListener<T> listener) {
+      listener.onComplete(this);
+      return this;
+    }
+
+    @Override
+    public Task<T> addOnCompleteListener(Executor executor, OnCompleteListener<T> listener) {
+      executor.execute(() -> listener.onComplete(this));
+      return this;
+    }
+
+    @Override
+    public Task<T> addOnSuccessListener(Executor executor,
+        OnSuccessListener<? super T> listener) {
+      if (exception == null) {
+        executor.execute(() -> listener.onSuccess(result));
+      }
+      return this;
+    }
+
+    @Override
+    public Task<T> addOnFailureListener(Executor executor, OnFailureListener listener) {
+      if (exception != null) {
+        executor.execute(() -> listener.onFailure(exception));
+      }
+      return this;
+    }
+  }
+}
@@ -0,0 +1,48 @@
+package com.google.mlkit.vision.barcode;
+
+import java.util.concurrent.Executor;
+
+/**
+ * JVM stand-in for the ML Kit class.
+ */
+public class BarcodeScannerOptions {
+
+  private final int formats;
+  private final Executor executor;
+
+  private BarcodeScannerOptions(int formats, Executor executor) {
+    this.formats = formats;
+    this.executor = executor;
+  }
+
+  public int getBarcodeFormats() {
+    return formats;
+  }
+
+  public Executor getExecutor() {
+    return executor;
+  }
+
+  public static class Builder {
+
+    private int formats = 0;
+    private Executor executor;
+
+    public Builder setBarcodeFormats(int format, int... moreFormats) {
+      formats = format;
+      for (int more : moreFormats) {
+        formats |= more;
+      }
+      return this;
+    }
+
+    public Builder setExecutor(Executor executor) {
+      this.executor = executor;
+      return this;
+    }
+
+    public BarcodeScannerOptions build() {
+      return new BarcodeScannerOptions(formats, executor);
+    }
+  }
+}
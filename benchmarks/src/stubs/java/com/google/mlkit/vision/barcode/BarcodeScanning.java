@@ -0,0 +1,46 @@
+package com.google.mlkit.vision.barcode;
+
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import com.google.mlkit.vision.barcode.common.Barcode;
+import com.google.mlkit.vision.common.InputImage;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * JVM stand-in for the ML Kit class. There is no model on the JVM, the clients never find a
+ * barcode. They still reject images once their executor is shut down, like the real clients do.
+ */
+public final class BarcodeScanning {
+
+  private BarcodeScanning() {
+  }
+
+  public static BarcodeScanner getClient(BarcodeScannerOptions options) {
+    return new BarcodeScanner() {
+      private volatile boolean closed = false;
+
+      @Override
+      public Task<List<Barcode>> process(InputImage image) {
+        if (closed) {
+          return Tasks.forException(new IllegalStateException("client is closed"));
+        }
+        try {
+          if (options.getExecutor() != null) {
+            options.getExecutor().execute(() -> {
+            });
+          }
+        } catch (RejectedExecutionException e) {
+          return Tasks.forException(e);
+        }
+        return Tasks.forResult(Collections.emptyList());
+      }
+
+      @Override
+      public void close() {
+        closed = true;
+      }
+    };
+  }
+}
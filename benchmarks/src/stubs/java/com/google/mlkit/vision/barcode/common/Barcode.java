@@ -0,0 +1,71 @@
+package com.google.mlkit.vision.barcode.common;
+
+import android.graphics.Rect;
+
+/**
+ * JVM stand-in for the ML Kit class. Unlike the original it can be created directly, so canned
+ * detector results can be fed to the analyzer.
+ */
+public class Barcode {
+
+  public static final int FORMAT_UNKNOWN = -1;
+  public static final int FORMAT_ALL_FORMATS = 0;
+  public static final int FORMAT_CODE_128 = 1;
+  public static final int FORMAT_CODE_39 = 2;
+  public static final int FORMAT_CODE_93 = 4;
+  public static final int FORMAT_CODABAR = 8;
+  public static final int FORMAT_DATA_MATRIX = 16;
+  public static final int FORMAT_EAN_13 = 32;
+  public static final int FORMAT_EAN_8 = 64;
+  public static final int FORMAT_ITF = 128;
+  public static final int FORMAT_QR_CODE = 256;
+  public static final int FORMAT_UPC_A = 512;
+  public static final int FORMAT_UPC_E = 1024;
+  public static final int FORMAT_PDF417 = 2048;
+  public static final int FORMAT_AZTEC = 4096;
+  public static final int TYPE_UNKNOWN = 0;
+  public static final int TYPE_TEXT = 7;
+
+  private final int format;
+  private final int valueType;
+  private final String rawValue;
+  private final byte[] rawBytes;
+  private final Rect boundingBox;
+
+  /**
+   * Only exists in the stand-in.
+   *
+   * @param format      format of the barcode
+   * @param valueType   type of the value
+   * @param rawValue    value of the barcode, null if it isn't valid UTF-8
+   * @param rawBytes    raw bytes of the value
+   * @param boundingBox bounds in the coordinates of the detected image, null if unknown
+   */
+  public Barcode(int format, int valueType, String rawValue, byte[] rawBytes, Rect boundingBox) {
+    this.format = format;
+    this.valueType = valueType;
+    this.rawValue = rawValue;
+    this.rawBytes = rawBytes;
+    this.boundingBox = boundingBox;
+  }
+
+  public int getFormat() {
+    return format;
+  }
+
+  public int getValueType() {
+    return valueType;
+  }
+
+  public String getRawValue() {
+    return rawValue;
+  }
+
+  public byte[] getRawBytes() {
+    return rawBytes;
+  }
+
+  public Rect getBoundingBox() {
+    return boundingBox;
+  }
+}
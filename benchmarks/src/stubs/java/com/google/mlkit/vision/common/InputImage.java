@@ -0,0 +1,49 @@
+package com.google.mlkit.vision.common;
+
+import android.graphics.Bitmap;
+import android.media.Image;
+
+/**
+ * JVM stand-in for the ML Kit class. Keeps the size and rotation, the pixels are only read by the
+ * detector, which is replaced on the JVM.
+ */
+public class InputImage {
+
+  public static final int IMAGE_FORMAT_NV21 = 17;
+  public static final int IMAGE_FORMAT_YUV_420_888 = 35;
+
+  private final int width;
+  private final int height;
+  private final int rotationDegrees;
+
+  private InputImage(int width, int height, int rotationDegrees) {
+    this.width = width;
+    this.height = height;
+    this.rotationDegrees = rotationDegrees;
+  }
+
+  public static InputImage fromMediaImage(Image image, int rotationDegrees) {
+    return new InputImage(image.getWidth(), image.getHeight(), rotationDegrees);
+  }
+
+  public static InputImage fromByteArray(byte[] byteArray, int width, int height,
+      int rotationDegrees, int format) {
+    return new InputImage(width, height, rotationDegrees);
+  }
+
+  public static InputImage fromBitmap(Bitmap bitmap, int rotationDegrees) {
+    return new InputImage(bitmap.getWidth(), bitmap.getHeight(), rotationDegrees);
+  }
+
+  public int getWidth() {
+    return width;
+  }
+
+  public int getHeight() {
+    return height;
+  }
+
+  public int getRotationDegrees() {
+    return rotationDegrees;
+  }
+}
@@ -0,0 +1,72 @@
+package com.biso.cordova.plugins.mlkit.barcode.scanner;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import android.content.Context;
+import android.graphics.Rect;
+import com.google.mlkit.vision.barcode.common.Barcode;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.List;
+import org.json.JSONObject;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * The format counts of adaptive formats are kept in the tuning profile, so a scan with the same
+ * settings starts narrowed to the formats found before.
+ */
+public class AdaptiveFormatsTest {
+
+  private static final int FORMATS = Barcode.FORMAT_EAN_13 | Barcode.FORMAT_QR_CODE
+      | Barcode.FORMAT_CODE_128;
+  private static final List<Barcode> EAN = Collections.singletonList(new Barcode(
+      Barcode.FORMAT_EAN_13, Barcode.TYPE_TEXT, "4006381333931",
+      "4006381333931".getBytes(StandardCharsets.UTF_8), new Rect(0, 0, 100, 50)));
+
+  @BeforeClass
+  public static void loadProfile() throws IOException {
+    // the profile is written in the background, the directory is only removed when the jvm exits
+    File storage = Files.createTempDirectory("profile").toFile();
+    storage.deleteOnExit();
+    new File(storage, "mlkit_barcode_scanner_profile.json").deleteOnExit();
+    TuningProfile.load(new Context(storage));
+  }
+
+  @Test
+  public void countsAreStoredInTheTuningProfile() throws Exception {
+    ScannerSettings settings = new ScannerSettings(new JSONObject()
+        .put("barcodeFormats", FORMATS).put("adaptiveFormats", true).put("tuningProfile", true));
+    AdaptiveFormats first = new AdaptiveFormats(settings, TuningProfile.get(settings));
+    assertEquals(FORMATS, first.selectFormats());
+
+    for (int i = 0; i < 30; i++) {
+      first.onDetected(FORMATS, EAN);
+    }
+    first.save();
+
+    assertEquals(30, TuningProfile.get(settings).getFormatCounts()[
+        Integer.numberOfTrailingZeros(Barcode.FORMAT_EAN_13)]);
+    assertEquals(Barcode.FORMAT_EAN_13,
+        new AdaptiveFormats(settings, TuningProfile.get(settings)).selectFormats());
+  }
+
+  @Test
+  public void countsAreNotStoredWithoutTuningProfile() throws Exception {
+    // other formats than above, so the profile entry of the other test doesn't interfere
+    int formats = Barcode.FORMAT_EAN_13 | Barcode.FORMAT_QR_CODE;
+    ScannerSettings settings = new ScannerSettings(new JSONObject()
+        .put("barcodeFormats", formats).put("adaptiveFormats", true).put("tuningProfile", false));
+    AdaptiveFormats first = new AdaptiveFormats(settings, null);
+    for (int i = 0; i < 30; i++) {
+      first.onDetected(formats, EAN);
+    }
+    first.save();
+
+    assertNull(TuningProfile.get(settings));
+  }
+}
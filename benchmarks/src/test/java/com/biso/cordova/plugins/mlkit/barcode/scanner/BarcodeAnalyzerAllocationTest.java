@@ -0,0 +1,272 @@
+package com.biso.cordova.plugins.mlkit.barcode.scanner;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import android.graphics.ImageFormat;
+import android.graphics.Rect;
+import android.graphics.RectF;
+import android.media.Image;
+import androidx.camera.core.ImageInfo;
+import androidx.camera.core.ImageProxy;
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import com.google.mlkit.vision.barcode.BarcodeScanner;
+import com.google.mlkit.vision.barcode.common.Barcode;
+import com.google.mlkit.vision.common.InputImage;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.json.JSONObject;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * The post processing stage reuses its barcodes, lists and rectangles between frames, so once a
+ * scan is running it must not allocate anything for frames that don't bring new barcodes. Garbage
+ * per frame means garbage collections while the camera is running, which show up as dropped
+ * preview frames on low end devices.
+ * <p>
+ * Only the post processing is measured, the camera, the detector and the task listeners allocate
+ * on their own.
+ */
+public class BarcodeAnalyzerAllocationTest {
+
+  private static final int WARM_UP_FRAMES = 20_000;
+  private static final int MEASURED_FRAMES = 10_000;
+  // the smallest object is 16 bytes, so garbage on every frame is far above this. The little that
+  // is allowed covers one off allocations of the JIT compiler and the allocation counter itself.
+  private static final long MAX_ALLOCATED = MEASURED_FRAMES / 4;
+  private static final ScanAreaSource SCAN_AREA = new ScanAreaSource() {
+    private final RectF surfaceArea = new RectF(0, 0, 720, 1280);
+    private final RectF scanArea = Utils.calculateRectF(1280, 720, 0.5, 1);
+
+    @Override
+    public RectF getScanArea() {
+      return scanArea;
+    }
+
+    @Override
+    public RectF getSurfaceArea() {
+      return surfaceArea;
+    }
+  };
+
+  private com.sun.management.ThreadMXBean threads;
+  private AllocationCountingExecutor postProcessor;
+  private final List<String> results = new ArrayList<>();
+
+  @Before
+  public void setUp() {
+    Assume.assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean);
+    threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    Assume.assumeTrue(threads.isThreadAllocatedMemorySupported());
+    threads.setThreadAllocatedMemoryEnabled(true);
+    postProcessor = new AllocationCountingExecutor();
+  }
+
+  @Test
+  public void framesWithoutBarcodes() throws Exception {
+    assertSteadyStateWithoutGarbage(new JSONObject(), Collections.emptyList());
+  }
+
+  @Test
+  public void strictStabilizerWhileBarcodesAreNotStable() throws Exception {
+    assertSteadyStateWithoutGarbage(new JSONObject().put("stableThreshold", Integer.MAX_VALUE)
+        .put("fastPathThreshold", 0), barcodes(3));
+  }
+
+  @Test
+  public void votingStabilizerInContinuousMode() throws Exception {
+    // the barcodes are accepted and reported once, after that every frame is the same set
+    assertSteadyStateWithoutGarbage(new JSONObject().put("stabilizationMode",
+        VotingStabilizer.MODE).put("continuousMode", true), barcodes(3));
+    assertEquals(1, results.size());
+  }
+
+  @Test
+  public void fastPathInContinuousMode() throws Exception {
+    assertSteadyStateWithoutGarbage(new JSONObject().put("fastPathThreshold", 2)
+        .put("continuousMode", true), barcodes(1));
+    assertEquals(1, results.size());
+  }
+
+  @Test
+  public void recentlySeenBarcodesAreSkipped() throws Exception {
+    assertSteadyStateWithoutGarbage(new JSONObject().put("continuousMode", true)
+        .put("recentlySeenTtl", 60_000).put("recentlySeenMode", RecentlySeenCache.SKIP),
+        barcodes(2));
+  }
+
+  @Test
+  public void barcodesOutsideOfTheScanArea() throws Exception {
+    List<Barcode> outside = Collections.singletonList(new Barcode(Barcode.FORMAT_QR_CODE,
+        Barcode.TYPE_TEXT, "outside", "outside".getBytes(StandardCharsets.UTF_8),
+        new Rect(10, 10, 200, 200)));
+    assertSteadyStateWithoutGarbage(new JSONObject().put("continuousMode", true), outside);
+    assertTrue(results.isEmpty());
+  }
+
+  private void assertSteadyStateWithoutGarbage(JSONObject options, List<Barcode> barcodes) {
+    ScannerSettings settings = new ScannerSettings(options);
+    Task<List<Barcode>> detected = Tasks.forResult(barcodes);
+    BarcodeScanner scanner = new BarcodeScanner() {
+      @Override
+      public Task<List<Barcode>> process(InputImage image) {
+        return detected;
+      }
+
+      @Override
+      public void close() {
+        // nothing to release
+      }
+    };
+    BarcodeAnalyzer analyzer = new BarcodeAnalyzer(settings,
+        data -> results.add(data.getStringExtra(BarcodeAnalyzer.RESULT)), SCAN_AREA,
+        new AnalysisPolicy(settings), new ScanMetrics(), scanner, postProcessor);
+    Frame frame = new Frame();
+
+    for (int i = 0; i < WARM_UP_FRAMES; i++) {
+      analyzer.analyze(frame);
+    }
+    postProcessor.counting = true;
+    for (int i = 0; i < MEASURED_FRAMES; i++) {
+      analyzer.analyze(frame);
+    }
+    postProcessor.counting = false;
+    analyzer.close();
+
+    assertEquals(MEASURED_FRAMES, postProcessor.frames);
+    assertTrue(postProcessor.allocated + " bytes allocated by the post processing of "
+        + MEASURED_FRAMES + " frames", postProcessor.allocated <= MAX_ALLOCATED);
+  }
+
+  /**
+   * Barcodes lined up in the middle of the scan area, with a format outside of the range of cached
+   * Integer instances.
+   */
+  private static List<Barcode> barcodes(int count) {
+    RectF scanArea = SCAN_AREA.getScanArea();
+    List<Barcode> barcodes = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      int top = (int) scanArea.centerY() - 60 + i * 40;
+      String value = "barcode " + i;
+      barcodes.add(new Barcode(Barcode.FORMAT_QR_CODE, Barcode.TYPE_TEXT, value,
+          value.getBytes(StandardCharsets.UTF_8),
+          new Rect((int) scanArea.left + 40, top, (int) scanArea.right - 40, top + 30)));
+    }
+    return barcodes;
+  }
+
+  /**
+   * Runs the post processing on the calling thread and counts the bytes it allocates.
+   */
+  private class AllocationCountingExecutor extends AbstractExecutorService {
+
+    private boolean counting = false;
+    private long allocated = 0;
+    private int frames = 0;
+    private long overhead = -1;
+
+    @Override
+    public void execute(Runnable command) {
+      if (!counting) {
+        command.run();
+        return;
+      }
+      if (overhead < 0) {
+        // reading the counter may allocate itself
+        long start = threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+        overhead = threads.getThreadAllocatedBytes(Thread.currentThread().getId()) - start;
+      }
+      long start = threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+      command.run();
+      allocated += Math.max(0,
+          threads.getThreadAllocatedBytes(Thread.currentThread().getId()) - start - overhead);
+      frames++;
+    }
+
+    @Override
+    public void shutdown() {
+      // runs on the calling thread, nothing to shut down
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+      return Collections.emptyList();
+    }
+
+    @Override
+    public boolean isShutdown() {
+      return false;
+    }
+
+    @Override
+    public boolean isTerminated() {
+      return false;
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) {
+      return false;
+    }
+  }
+
+  /**
+   * A camera frame that is delivered over and over again.
+   */
+  private static class Frame implements ImageProxy, ImageInfo {
+
+    private final Image image = new Image(1280, 720);
+
+    @Override
+    public void close() {
+      // the frame is reused
+    }
+
+    @Override
+    public int getFormat() {
+      return ImageFormat.YUV_420_888;
+    }
+
+    @Override
+    public int getWidth() {
+      return 1280;
+    }
+
+    @Override
+    public int getHeight() {
+      return 720;
+    }
+
+    @Override
+    public PlaneProxy[] getPlanes() {
+      return new PlaneProxy[0];
+    }
+
+    @Override
+    public ImageInfo getImageInfo() {
+      return this;
+    }
+
+    @Override
+    public Image getImage() {
+      return image;
+    }
+
+    @Override
+    public long getTimestamp() {
+      return System.nanoTime();
+    }
+
+    @Override
+    public int getRotationDegrees() {
+      return 90;
+    }
+  }
+}
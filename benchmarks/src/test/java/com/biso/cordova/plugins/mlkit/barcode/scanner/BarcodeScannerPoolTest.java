@@ -0,0 +1,60 @@
+package com.biso.cordova.plugins.mlkit.barcode.scanner;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import com.google.mlkit.vision.barcode.BarcodeScanner;
+import com.google.mlkit.vision.barcode.common.Barcode;
+import com.google.mlkit.vision.common.InputImage;
+import java.util.concurrent.Executor;
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * Clients are shared per barcode formats and executor, and must never outlive the executors they
+ * detect on.
+ */
+public class BarcodeScannerPoolTest {
+
+  private static final int FORMATS = Barcode.FORMAT_EAN_13;
+
+  @After
+  public void tearDown() {
+    ScanExecutors.shutdown();
+  }
+
+  @Test
+  public void clientsAreSharedPerFormatsAndExecutor() {
+    Executor decode = ScanExecutors.getDecodeExecutor();
+    BarcodeScanner detection = BarcodeScannerPool.acquire(FORMATS);
+    BarcodeScanner sameDetection = BarcodeScannerPool.acquire(FORMATS);
+    BarcodeScanner still = BarcodeScannerPool.acquire(FORMATS, decode);
+
+    assertSame(detection, sameDetection);
+    assertNotSame(detection, still);
+    assertSame(still, BarcodeScannerPool.acquire(FORMATS, decode));
+  }
+
+  @Test
+  public void shutdownClosesClientsThatAreStillInUse() {
+    BarcodeScanner scanner = BarcodeScannerPool.acquire(FORMATS);
+    int generation = BarcodeScannerPool.getGeneration();
+    assertTrue(scanner.process(image()).isSuccessful());
+
+    ScanExecutors.shutdown();
+
+    assertFalse(scanner.process(image()).isSuccessful());
+    assertNotEquals(generation, BarcodeScannerPool.getGeneration());
+    BarcodeScanner rebuilt = BarcodeScannerPool.acquire(FORMATS);
+    assertNotSame(scanner, rebuilt);
+    assertTrue(rebuilt.process(image()).isSuccessful());
+  }
+
+  private static InputImage image() {
+    return InputImage.fromByteArray(new byte[16 * 16 * 3 / 2], 16, 16, 0,
+        InputImage.IMAGE_FORMAT_NV21);
+  }
+}
@@ -0,0 +1,85 @@
+package com.biso.cordova.plugins.mlkit.barcode.scanner;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import android.content.Context;
+import com.google.mlkit.vision.barcode.common.Barcode;
+import java.io.File;
+import java.nio.file.Files;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.json.JSONArray;
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Paths and base64 data can both start with a slash, base64 data must not be opened as a file.
+ */
+public class StillImageDecoderTest {
+
+  private static final byte[] JPEG_HEADER = {(byte) 0xFF, (byte) 0xD8, (byte) 0xFF, (byte) 0xE0,
+      0x00, 0x10, 'J', 'F', 'I', 'F', 0x00, 0x01};
+  private static final String NOTHING_FOUND = "[]";
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  private final Map<Integer, String> results = new ConcurrentHashMap<>();
+
+  @After
+  public void tearDown() {
+    ScanExecutors.shutdown();
+  }
+
+  @Test
+  public void base64JpegStartingWithSlashIsDecoded() throws Exception {
+    String jpeg = Base64.getEncoder().encodeToString(JPEG_HEADER);
+    assertTrue(jpeg.startsWith("/9j/"));
+
+    decode(jpeg, "data:image/jpeg;base64," + jpeg);
+
+    assertEquals(NOTHING_FOUND, results.get(0));
+    assertEquals(NOTHING_FOUND, results.get(1));
+  }
+
+  @Test
+  public void absolutePathIsRead() throws Exception {
+    File file = folder.newFile("barcode.jpg");
+    Files.write(file.toPath(), JPEG_HEADER);
+
+    decode(file.getAbsolutePath(), "content://media/external/images/1");
+
+    assertEquals(NOTHING_FOUND, results.get(0));
+    assertEquals(StillImageDecoder.IMAGE_NOT_READABLE, results.get(1));
+  }
+
+  private void decode(String... images) throws InterruptedException {
+    CountDownLatch done = new CountDownLatch(1);
+    StillImageDecoder decoder = new StillImageDecoder(new Context(folder.getRoot()),
+        Barcode.FORMAT_QR_CODE, StillImageDecoder.DEFAULT_MAX_IMAGE_SIZE,
+        new StillImageDecoder.Listener() {
+          @Override
+          public void onImageDecoded(int index, String barcodes) {
+            results.put(index, barcodes);
+          }
+
+          @Override
+          public void onImageFailed(int index, String error) {
+            results.put(index, error);
+          }
+
+          @Override
+          public void onDone(int count) {
+            done.countDown();
+          }
+        });
+    decoder.decode(new JSONArray(images));
+    assertTrue(done.await(5, TimeUnit.SECONDS));
+  }
+}
@@ -0,0 +1,118 @@
+package com.biso.cordova.plugins.mlkit.barcode.scanner.replay;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import android.graphics.Rect;
+import com.google.mlkit.vision.barcode.common.Barcode;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.Test;
+
+public class ReplayHarnessTest {
+
+  private static final File RECORDINGS = new File("src/test/resources/recordings");
+  private static final Barcode EAN_13 = new Barcode(Barcode.FORMAT_EAN_13, Barcode.TYPE_TEXT,
+      "4006381333931", "4006381333931".getBytes(StandardCharsets.UTF_8),
+      new Rect(200, 610, 520, 670));
+
+  @Test
+  public void replaysRecordingFromDirectory() throws Exception {
+    ReplayHarness.Report report = new ReplayHarness(
+        Recording.load(new File(RECORDINGS, "steady-ean13"))).replay();
+
+    assertEquals(1, report.getResults().size());
+    JSONArray barcodes = new JSONArray(report.getResults().get(0));
+    assertEquals("4006381333931", barcodes.getJSONObject(0).getString("value"));
+    assertTrue(report.getTimeToFirstResult() > 0);
+    assertTrue(report.getFramesConsumed() > 6);
+    assertTrue(report.getFramesSkipped() > 0);
+    assertEquals(0, report.getFramesLeftOpen());
+  }
+
+  @Test
+  public void isDeterministic() throws Exception {
+    ReplayHarness harness = new ReplayHarness(
+        Recording.load(new File(RECORDINGS, "steady-ean13")));
+    ReplayHarness.Report first = harness.replay();
+    ReplayHarness.Report second = harness.replay();
+
+    assertEquals(first.getTimeToFirstResult(), second.getTimeToFirstResult());
+    assertEquals(first.getFramesConsumed(), second.getFramesConsumed());
+    assertEquals(first.getResults(), second.getResults());
+  }
+
+  @Test
+  public void stableThresholdDecidesFramesConsumed() throws Exception {
+    JSONObject settings = new JSONObject().put("stableThreshold", 4)
+        .put("fastPathThreshold", 0);
+    ReplayHarness.Report report = new ReplayHarness(
+        recording(settings, 20, 33, 10, Collections.singletonList(EAN_13))).replay();
+
+    // the first frame with the barcode doesn't count, it has nothing to be compared with
+    assertEquals(5, report.getFramesConsumed());
+    // the result is there once the detector is done with the fifth frame
+    assertEquals(4 * 33 + 10, report.getTimeToFirstResult());
+    assertEquals(5, report.getFramesDetected());
+  }
+
+  @Test
+  public void dropsFramesWhileDetectorIsBusy() throws Exception {
+    JSONObject settings = new JSONObject().put("stableThreshold", 4)
+        .put("fastPathThreshold", 0);
+    ReplayHarness.Report report = new ReplayHarness(
+        recording(settings, 20, 33, 50, Collections.singletonList(EAN_13))).replay();
+
+    // a frame that waits for the detector is replaced by a newer one if that arrives before the
+    // detector is done, so every third frame is dropped
+    assertEquals(5, report.getFramesDelivered());
+    assertEquals(2, report.getFramesSkipped());
+    assertEquals(7, report.getFramesConsumed());
+  }
+
+  @Test
+  public void continuousModeReplaysAllFrames() throws Exception {
+    JSONObject settings = new JSONObject().put("continuousMode", true);
+    ReplayHarness.Report report = new ReplayHarness(
+        recording(settings, 30, 33, 10, Collections.singletonList(EAN_13))).replay();
+
+    assertEquals(30, report.getFramesDelivered());
+    // the same barcode is only reported again after it left the scan area
+    assertEquals(1, report.getResults().size());
+  }
+
+  @Test
+  public void noResultWithoutBarcodes() throws Exception {
+    ReplayHarness.Report report = new ReplayHarness(
+        recording(new JSONObject(), 10, 33, 10, Collections.emptyList())).replay();
+
+    assertTrue(report.getResults().isEmpty());
+    assertEquals(-1, report.getTimeToFirstResult());
+    assertEquals(-1, report.getFramesConsumed());
+    assertEquals(10, report.getFramesDelivered());
+  }
+
+  @Test
+  public void croppedFramesReachTheDetector() throws Exception {
+    JSONObject settings = new JSONObject().put("cropToScanArea", true);
+    ReplayHarness.Report report = new ReplayHarness(
+        recording(settings, 10, 33, 10, Collections.emptyList())).replay();
+
+    assertEquals(10, report.getFramesDetected());
+    assertEquals(0, report.getFramesLeftOpen());
+  }
+
+  private static Recording recording(JSONObject settings, int count, long interval, long latency,
+      List<Barcode> barcodes) {
+    List<Recording.Frame> frames = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      frames.add(new Recording.Frame(i * interval, 1280, 720, 90, latency, null, barcodes));
+    }
+    return new Recording(settings, 720, 1280, frames);
+  }
+}
@@ -9,4 +9,4 @@ declare global {
 }
 
 export { MLKitBarcodeScanner } from './BarcodeScanner.plugin';
-export { IBarcodeFormats, IError, IOptions, IResult, IPrettyResult } from './Interface';
+export { IBarcodeFormats, IBatchProgress, IBounds, IDecodeImagesOptions, IError, IMetrics, IOptions, IPrettyImageResult, IResult, IPrettyResult, IPrettyStreamEvent, IWarmUpOptions } from './Interface';
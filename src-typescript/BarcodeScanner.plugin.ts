@@ -1,11 +1,22 @@
 import {barcodeFormat, barcodeType} from './Detector';
 import {
   IBarcodeFormats,
+  IBatchProgress,
   IConfig,
+  IDecodeImagesOptions,
   IError,
+  IImageResult,
+  IImagesDone,
+  IMetrics,
   IOptions,
   IResult,
-  IPrettyResult
+  IPrettyImageResult,
+  IPrettyResult,
+  IPrettyStreamEvent,
+  IResultWithMetrics,
+  IStreamEvent,
+  IStreamEvents,
+  IWarmUpOptions
 } from './Interface';
 import {defaultOptions} from './Options';
 import {keyByValue} from './util/Object';
@@ -28,6 +39,14 @@ export class MLKitBarcodeScanner {
         }
     }
 
+  private prettyPrintEvent(event: IStreamEvent): IPrettyStreamEvent {
+    return {
+      ...this.prettyPrintBarcode(event),
+      timestamp: event.timestamp,
+      ...(event.bounds ? {bounds: event.bounds} : {}),
+    };
+  }
+
   private getBarcodeFormatFlags(barcodeFormats?: IBarcodeFormats): number {
     let barcodeFormatFlag = 0;
     let key: keyof typeof barcodeFormat;
@@ -48,8 +67,9 @@ export class MLKitBarcodeScanner {
 
   scan(
       userOptions: IOptions,
-      success: (result: IPrettyResult[]) => unknown,
+      success: (result: IPrettyResult[], metrics?: IMetrics) => unknown,
       failure: (error: IError) => unknown,
+      progress?: (added: IPrettyResult[], count: number) => unknown,
   ): void {
     const barcodeFormats =
         userOptions?.barcodeFormats || defaultOptions.barcodeFormats;
@@ -59,17 +79,132 @@ export class MLKitBarcodeScanner {
       barcodeFormats: this.getBarcodeFormatFlags(barcodeFormats),
     };
 
-    this.sendScanRequest(config, success, failure);
+    this.sendScanRequest(config, success, failure, progress);
+  }
+
+  stream(
+      userOptions: IOptions,
+      events: (events: IPrettyStreamEvent[]) => unknown,
+      failure: (error: IError) => unknown,
+  ): void {
+    const barcodeFormats =
+        userOptions?.barcodeFormats || defaultOptions.barcodeFormats;
+    const config: IConfig = {
+      ...defaultOptions,
+      ...userOptions,
+      barcodeFormats: this.getBarcodeFormatFlags(barcodeFormats),
+      streamResults: true,
+      batchMode: false,
+    };
+
+    this.sendScanRequest(config, () => events([]), failure, undefined, events);
+  }
+
+  warmUp(
+      options?: IWarmUpOptions,
+      success?: () => unknown,
+      failure?: (error: IError) => unknown,
+  ): void {
+    const config = {
+      ...options,
+      barcodeFormats: this.getBarcodeFormatFlags(options?.barcodeFormats),
+    };
+
+    cordova.exec(
+        () => {
+          success?.();
+        },
+        (err: (string | null)) => {
+          failure?.({
+            cancelled: false,
+            message: err
+          });
+        },
+        'cordova-plugin-mlkit-barcode-scanner',
+        'warmUp',
+        [config],
+    );
+  }
+
+  decodeImages(
+      images: string[],
+      options: IDecodeImagesOptions | undefined,
+      result: (result: IPrettyImageResult) => unknown,
+      done?: (count: number) => unknown,
+      failure?: (error: IError) => unknown,
+  ): void {
+    const config = {
+      ...options,
+      barcodeFormats: this.getBarcodeFormatFlags(options?.barcodeFormats),
+    };
+
+    cordova.exec(
+        (message: string) => {
+          const data: IImageResult | IImagesDone = JSON.parse(message);
+          if ('done' in data) {
+            done?.(data.done);
+          } else if (data.barcodes) {
+            result({
+              image: data.image,
+              barcodes: data.barcodes.map((b) => this.prettyPrintBarcode(b)),
+            });
+          } else {
+            result({image: data.image, error: data.error});
+          }
+        },
+        (err: (string | null)) => {
+          failure?.({
+            cancelled: false,
+            message: err
+          });
+        },
+        'cordova-plugin-mlkit-barcode-scanner',
+        'decodeImages',
+        [images, config],
+    );
+  }
+
+  stopScan(
+      success?: () => unknown,
+      failure?: (error: IError) => unknown,
+  ): void {
+    cordova.exec(
+        () => {
+          success?.();
+        },
+        (err: (string | null)) => {
+          failure?.({
+            cancelled: false,
+            message: err
+          });
+        },
+        'cordova-plugin-mlkit-barcode-scanner',
+        'stopScan',
+        [],
+    );
   }
 
   private sendScanRequest(
       config: IConfig,
-      successCallback: (result: IPrettyResult[]) => unknown,
+      successCallback: (result: IPrettyResult[], metrics?: IMetrics) => unknown,
       failureCallback: (error: IError) => unknown,
+      progressCallback?: (added: IPrettyResult[], count: number) => unknown,
+      eventsCallback?: (events: IPrettyStreamEvent[]) => unknown,
   ): void {
     cordova.exec(
-        (data: [IResult]) => {
-          successCallback(data.map((b) => this.prettyPrintBarcode(b)));
+        (message: string | IResult[] | IResultWithMetrics | IBatchProgress | IStreamEvents) => {
+          // results are serialized once on the native side and arrive as a json string
+          const data: IResult[] | IResultWithMetrics | IBatchProgress | IStreamEvents =
+              typeof message === 'string' ? JSON.parse(message) : message;
+          if (Array.isArray(data)) {
+            successCallback(data.map((b) => this.prettyPrintBarcode(b)));
+          } else if ('events' in data) {
+            eventsCallback?.(data.events.map((e) => this.prettyPrintEvent(e)));
+          } else if ('progress' in data) {
+            progressCallback?.(data.progress.map((b) => this.prettyPrintBarcode(b)), data.count);
+          } else {
+            successCallback(data.barcodes.map((b) => this.prettyPrintBarcode(b)), data.metrics);
+          }
         },
         (err: (string | null)) => {
           switch (err) {
@@ -31,6 +31,46 @@ export interface IOptions {
   focusBackgroundColor?: string;
   stableThreshold?: number;
   debugOverlay?: boolean;
+  continuousMode?: boolean;
+  cropToScanArea?: boolean;
+  scanAreaMargin?: number;
+  analysisResolution?: string;
+  maxAnalysisFps?: number;
+  backpressureStrategy?: 'keepOnlyLatest' | 'blockProducer';
+  detectionLatencyBudget?: number;
+  reportMetrics?: boolean;
+  stabilizationMode?: 'strict' | 'voting';
+  stabilizationWindow?: number;
+  stabilizationHitRatio?: number;
+  stabilizationDwellTime?: number;
+  batchMode?: boolean;
+  batchSize?: number;
+  batchTimeout?: number;
+  batchProgress?: boolean;
+  streamResults?: boolean;
+  streamQueueSize?: number;
+  streamMaxEventRate?: number;
+  streamIncludeBounds?: boolean;
+  recentlySeenTtl?: number;
+  recentlySeenSize?: number;
+  recentlySeenMode?: 'skip' | 'deprioritize';
+  recentlySeenPersist?: boolean;
+  fastPathThreshold?: number;
+  fastPathMovementTolerance?: number;
+  analysisThreadPriority?: number;
+  splitPostProcessing?: boolean;
+  trackBarcodes?: boolean;
+  adaptiveFormats?: boolean;
+  adaptiveFullScanInterval?: number;
+  keepCameraOpen?: number;
+  tuningProfile?: boolean;
+  minFrameSharpness?: number;
+  minFrameLuminance?: number;
+  maxFrameDifference?: number;
+  focusOnScanArea?: boolean;
+  autoZoom?: boolean;
+  pinchToZoom?: boolean;
+  initialZoomRatio?: number;
 }
 
 export interface IConfig {
@@ -50,6 +90,72 @@ export interface IConfig {
   focusBackgroundColor?: string;
   stableThreshold?: number;
   debugOverlay?: boolean;
+  continuousMode?: boolean;
+  cropToScanArea?: boolean;
+  scanAreaMargin?: number;
+  analysisResolution?: string;
+  maxAnalysisFps?: number;
+  backpressureStrategy?: 'keepOnlyLatest' | 'blockProducer';
+  detectionLatencyBudget?: number;
+  reportMetrics?: boolean;
+  stabilizationMode?: 'strict' | 'voting';
+  stabilizationWindow?: number;
+  stabilizationHitRatio?: number;
+  stabilizationDwellTime?: number;
+  batchMode?: boolean;
+  batchSize?: number;
+  batchTimeout?: number;
+  batchProgress?: boolean;
+  streamResults?: boolean;
+  streamQueueSize?: number;
+  streamMaxEventRate?: number;
+  streamIncludeBounds?: boolean;
+  recentlySeenTtl?: number;
+  recentlySeenSize?: number;
+  recentlySeenMode?: 'skip' | 'deprioritize';
+  recentlySeenPersist?: boolean;
+  fastPathThreshold?: number;
+  fastPathMovementTolerance?: number;
+  analysisThreadPriority?: number;
+  splitPostProcessing?: boolean;
+  trackBarcodes?: boolean;
+  adaptiveFormats?: boolean;
+  adaptiveFullScanInterval?: number;
+  keepCameraOpen?: number;
+  tuningProfile?: boolean;
+  minFrameSharpness?: number;
+  minFrameLuminance?: number;
+  maxFrameDifference?: number;
+  focusOnScanArea?: boolean;
+  autoZoom?: boolean;
+  pinchToZoom?: boolean;
+  initialZoomRatio?: number;
+}
+
+export interface IWarmUpOptions {
+  barcodeFormats?: IBarcodeFormats;
+  idleTimeout?: number;
+}
+
+export interface IDecodeImagesOptions {
+  barcodeFormats?: IBarcodeFormats;
+  maxImageSize?: number;
+}
+
+export interface IImageResult {
+  image: number;
+  barcodes?: IResult[];
+  error?: string;
+}
+
+export interface IPrettyImageResult {
+  image: number;
+  barcodes?: IPrettyResult[];
+  error?: string;
+}
+
+export interface IImagesDone {
+  done: number;
 }
 
 export interface IResult {
@@ -66,6 +172,52 @@ export interface IPrettyResult {
   distanceToCenter: number;
 }
 
+export interface IBounds {
+  left: number;
+  top: number;
+  right: number;
+  bottom: number;
+}
+
+export interface IStreamEvent extends IResult {
+  timestamp: number;
+  bounds?: IBounds;
+}
+
+export interface IPrettyStreamEvent extends IPrettyResult {
+  timestamp: number;
+  bounds?: IBounds;
+}
+
+export interface IStreamEvents {
+  events: IStreamEvent[];
+}
+
+export interface IMetrics {
+  cameraStartup: number;
+  firstFrame: number;
+  framesAnalyzed: number;
+  framesDropped: number;
+  framesRejected: number;
+  detectorLatency: {
+    p50: number;
+    p95: number;
+    max: number;
+  };
+  stabilizationFrames: number;
+  timeToResult: number;
+}
+
+export interface IResultWithMetrics {
+  barcodes: IResult[];
+  metrics: IMetrics;
+}
+
+export interface IBatchProgress {
+  progress: IResult[];
+  count: number;
+}
+
 export interface IError {
   cancelled: boolean;
   message: string;
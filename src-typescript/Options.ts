@@ -31,5 +31,45 @@ export const defaultOptions: Required<IOptions> = Object.freeze({
   focusBackgroundColor: "#66FFFFFF",
   stableThreshold: 5,
   debugOverlay: false,
-  ignoreRotatedBarcodes: false
+  ignoreRotatedBarcodes: false,
+  continuousMode: false,
+  cropToScanArea: false,
+  scanAreaMargin: 0.1,
+  analysisResolution: "",
+  maxAnalysisFps: 0,
+  backpressureStrategy: "keepOnlyLatest",
+  detectionLatencyBudget: 100,
+  reportMetrics: false,
+  stabilizationMode: 'strict',
+  stabilizationWindow: 10,
+  stabilizationHitRatio: 0.6,
+  stabilizationDwellTime: 0,
+  batchMode: false,
+  batchSize: 0,
+  batchTimeout: 0,
+  batchProgress: false,
+  streamResults: false,
+  streamQueueSize: 32,
+  streamMaxEventRate: 10,
+  streamIncludeBounds: false,
+  recentlySeenTtl: 0,
+  recentlySeenSize: 100,
+  recentlySeenMode: 'skip',
+  recentlySeenPersist: true,
+  fastPathThreshold: 0,
+  fastPathMovementTolerance: 0.05,
+  analysisThreadPriority: 0,
+  splitPostProcessing: false,
+  trackBarcodes: false,
+  adaptiveFormats: false,
+  adaptiveFullScanInterval: 15,
+  keepCameraOpen: 0,
+  tuningProfile: false,
+  minFrameSharpness: 0,
+  minFrameLuminance: 0,
+  maxFrameDifference: 0,
+  focusOnScanArea: false,
+  autoZoom: false,
+  pinchToZoom: false,
+  initialZoomRatio: 1
 });
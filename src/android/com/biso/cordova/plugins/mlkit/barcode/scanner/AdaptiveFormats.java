@@ -0,0 +1,142 @@
+package com.biso.cordova.plugins.mlkit.barcode.scanner;
+
+import android.util.Log;
+import com.google.mlkit.vision.barcode.common.Barcode;
+import java.util.List;
+
+/**
+ * Narrows the barcode formats the detector looks for to the ones that actually show up. The
+ * detector gets slower with every enabled format, so when many formats are configured but only a
+ * few are scanned, most frames are run with a client for just those few.
+ * <p>
+ * How often each format was found is counted and, with the tuningProfile option, stored in the
+ * {@link TuningProfile}, so later scans with the same settings start narrowed right away.
+ * Every few frames, and after a streak of frames without a result, the frame is run with all
+ * configured formats, so formats that weren't seen before are still found. Formats found that way
+ * are added to the narrowed formats.
+ */
+public class AdaptiveFormats {
+
+  private static final String ADAPTIVE_FORMATS = "AdaptiveFormats";
+  private static final int FORMAT_BITS = TuningProfile.FORMAT_BITS;
+  // formats found less often than this are not part of the narrowed formats
+  private static final double MIN_SHARE = 0.05;
+  private static final int MIN_SAMPLES = 20;
+  private static final int MISS_STREAK = 10;
+  // counts are halved once they get this big, so changes in what is scanned are picked up
+  private static final long MAX_TOTAL = 10_000;
+
+  private final ScannerSettings settings;
+  private final int allFormats;
+  private final int fullScanInterval;
+  private final long[] counts = new long[FORMAT_BITS];
+  private long total = 0;
+  private int narrowedFormats = 0;
+  private int framesSinceFullScan = 0;
+  private int missStreak = 0;
+
+  /**
+   * @param settings scanner settings
+   * @param profile  past scans with the same settings, the counts start with the stored ones, null
+   *                 to start from scratch
+   */
+  public AdaptiveFormats(ScannerSettings settings, TuningProfile.Entry profile) {
+    this.settings = settings;
+    this.allFormats = BarcodeScannerPool.getEffectiveFormats(settings.getBarcodeFormats());
+    this.fullScanInterval = Math.max(1, settings.getAdaptiveFullScanInterval());
+    if (profile != null) {
+      load(profile);
+    }
+    narrowedFormats = calculateNarrowedFormats();
+  }
+
+  /**
+   * Decides which formats the next frame is detected with.
+   *
+   * @return the formats to detect, all configured formats if the frame isn't narrowed
+   */
+  public synchronized int selectFormats() {
+    if (narrowedFormats == 0 || missStreak >= MISS_STREAK
+        || framesSinceFullScan >= fullScanInterval) {
+      framesSinceFullScan = 0;
+      return allFormats;
+    }
+    framesSinceFullScan++;
+    return narrowedFormats;
+  }
+
+  /**
+   * Counts the formats of the barcodes found in a frame.
+   *
+   * @param formats  formats the frame was detected with
+   * @param barcodes barcodes found in the frame
+   */
+  public synchronized void onDetected(int formats, List<Barcode> barcodes) {
+    if (barcodes.isEmpty()) {
+      missStreak++;
+      return;
+    }
+    missStreak = 0;
+
+    for (int i = 0; i < barcodes.size(); i++) {
+      int format = barcodes.get(i).getFormat();
+      int bit = Integer.numberOfTrailingZeros(format);
+      if (bit < FORMAT_BITS && (allFormats & format) != 0) {
+        counts[bit]++;
+        total++;
+      }
+    }
+    if (total > MAX_TOTAL) {
+      total = 0;
+      for (int bit = 0; bit < FORMAT_BITS; bit++) {
+        counts[bit] /= 2;
+        total += counts[bit];
+      }
+    }
+
+    int narrowed = calculateNarrowedFormats();
+    if (formats == allFormats && narrowed != narrowedFormats && Log.isLoggable(ADAPTIVE_FORMATS,
+        Log.DEBUG)) {
+      Log.d(ADAPTIVE_FORMATS, "narrowing formats " + allFormats + " to " + narrowed);
+    }
+    narrowedFormats = narrowed;
+  }
+
+  /**
+   * Stores the counts in the tuning profile, so the next scan with the same settings starts
+   * narrowed. Writes asynchronously. Does nothing if the tuning profile is disabled.
+   */
+  public synchronized void save() {
+    if (settings.isTuningProfile()) {
+      TuningProfile.storeFormatCounts(settings, counts);
+    }
+  }
+
+  private int calculateNarrowedFormats() {
+    if (total < MIN_SAMPLES) {
+      return 0;
+    }
+    int narrowed = 0;
+    for (int bit = 0; bit < FORMAT_BITS; bit++) {
+      if (counts[bit] >= total * MIN_SHARE) {
+        narrowed |= 1 << bit;
+      }
+    }
+    // 1234 is the "nothing configured" value of the scanner pool, narrowing to exactly those
+    // formats would end up with the wrong client
+    if (narrowed == 0 || narrowed == allFormats || narrowed == 1234) {
+      return 0;
+    }
+    return narrowed;
+  }
+
+  private void load(TuningProfile.Entry profile) {
+    long[] stored = profile.getFormatCounts();
+    for (int bit = 0; bit < FORMAT_BITS; bit++) {
+      if (stored[bit] > 0 && (allFormats & (1 << bit)) != 0) {
+        counts[bit] = stored[bit];
+        total += stored[bit];
+      }
+    }
+  }
+}
@@ -0,0 +1,203 @@
+package com.biso.cordova.plugins.mlkit.barcode.scanner;
+
+import android.util.Log;
+import android.util.Size;
+import androidx.camera.core.ImageAnalysis;
+
+/**
+ * Decides which resolution frames are analyzed at, how many frames per second are analyzed and
+ * how the camera handles frames that arrive while the analyzer is busy.
+ * <p>
+ * With the resolution set to "auto" the detector latency is measured and the resolution is
+ * stepped down when the latency is over budget and stepped back up when there is headroom.
+ */
+public class AnalysisPolicy {
+
+  public static final String AUTO = "auto";
+  public static final String BLOCK_PRODUCER = "blockProducer";
+  private static final String POLICY = "AnalysisPolicy";
+  private static final Size[] RESOLUTIONS = new Size[]{
+      new Size(640, 360),
+      new Size(960, 540),
+      new Size(1280, 720),
+      new Size(1920, 1080)
+  };
+  private static final int AUTO_START_INDEX = 2;
+  // number of frames the latency has to stay over/under budget before the resolution changes
+  private static final int STEP_DOWN_FRAMES = 5;
+  private static final int STEP_UP_FRAMES = 30;
+  private static final double SMOOTHING = 0.2;
+  // the auto policy continues with the resolution the last scan ended with, so it doesn't have to
+  // find the right one again on every scan, unless the tuning profile knows better
+  private static int lastResolutionIndex = AUTO_START_INDEX;
+
+  private final boolean auto;
+  private final Size fixedResolution;
+  private final long minFrameInterval;
+  private final int backpressureStrategy;
+  private final long latencyBudget;
+  private Listener listener;
+  private int resolutionIndex;
+  private double averageLatency = -1;
+  private int overBudget = 0;
+  private int underBudget = 0;
+  private long lastFrameTimestamp = Long.MIN_VALUE;
+
+  public AnalysisPolicy(ScannerSettings settings) {
+    this(settings, null);
+  }
+
+  /**
+   * @param settings settings of the scan
+   * @param profile  past scans with the same settings, the auto policy starts with the resolution
+   *                 and latency they ended with, may be null
+   */
+  public AnalysisPolicy(ScannerSettings settings, TuningProfile.Entry profile) {
+    String resolution = settings.getAnalysisResolution();
+    auto = AUTO.equalsIgnoreCase(resolution);
+    fixedResolution = auto ? null : parseResolution(resolution);
+    minFrameInterval =
+        settings.getMaxAnalysisFps() > 0 ? 1_000_000_000L / settings.getMaxAnalysisFps() : 0;
+    backpressureStrategy = BLOCK_PRODUCER.equals(settings.getBackpressureStrategy())
+        ? ImageAnalysis.STRATEGY_BLOCK_PRODUCER : ImageAnalysis.STRATEGY_KEEP_ONLY_LATEST;
+    latencyBudget = settings.getDetectionLatencyBudget();
+    synchronized (AnalysisPolicy.class) {
+      resolutionIndex = lastResolutionIndex;
+    }
+    if (auto && profile != null) {
+      int index = indexOf(profile.getResolution());
+      if (index >= 0) {
+        resolutionIndex = index;
+        averageLatency = profile.getLatencyP50();
+      }
+    }
+  }
+
+  /**
+   * Sets the listener that gets notified when the auto policy changes the resolution.
+   *
+   * @param listener the listener
+   */
+  public void setListener(Listener listener) {
+    this.listener = listener;
+  }
+
+  /**
+   * @return the resolution frames should be analyzed at (long side x short side), or null if
+   * CameraX should decide
+   */
+  public synchronized Size getTargetResolution() {
+    return auto ? RESOLUTIONS[resolutionIndex] : fixedResolution;
+  }
+
+  public int getBackpressureStrategy() {
+    return backpressureStrategy;
+  }
+
+  /**
+   * Checks if a frame should be analyzed or dropped to stay within the maximum frame rate.
+   *
+   * @param timestamp timestamp of the frame in nanoseconds
+   * @return true if the frame should be analyzed
+   */
+  public synchronized boolean shouldAnalyze(long timestamp) {
+    if (minFrameInterval == 0) {
+      return true;
+    }
+    if (lastFrameTimestamp != Long.MIN_VALUE && timestamp - lastFrameTimestamp < minFrameInterval) {
+      return false;
+    }
+    lastFrameTimestamp = timestamp;
+    return true;
+  }
+
+  /**
+   * Feeds the detector latency of a frame into the auto policy.
+   *
+   * @param latency time the detector needed for the frame in milliseconds
+   */
+  public void onFrameDetected(long latency) {
+    if (!auto) {
+      return;
+    }
+
+    Size changed = null;
+    synchronized (this) {
+      averageLatency =
+          averageLatency < 0 ? latency : averageLatency + SMOOTHING * (latency - averageLatency);
+
+      if (averageLatency > latencyBudget) {
+        overBudget++;
+        underBudget = 0;
+      } else if (averageLatency < latencyBudget / 2.0) {
+        underBudget++;
+        overBudget = 0;
+      } else {
+        overBudget = 0;
+        underBudget = 0;
+      }
+
+      if (overBudget >= STEP_DOWN_FRAMES && resolutionIndex > 0) {
+        resolutionIndex--;
+        changed = RESOLUTIONS[resolutionIndex];
+      } else if (underBudget >= STEP_UP_FRAMES && resolutionIndex < RESOLUTIONS.length - 1) {
+        resolutionIndex++;
+        changed = RESOLUTIONS[resolutionIndex];
+      }
+
+      if (changed != null) {
+        synchronized (AnalysisPolicy.class) {
+          lastResolutionIndex = resolutionIndex;
+        }
+        Log.d(POLICY, "detector latency " + Math.round(averageLatency) + "ms, switching to "
+            + changed);
+        overBudget = 0;
+        underBudget = 0;
+        averageLatency = -1;
+      }
+    }
+
+    if (changed != null && listener != null) {
+      listener.onResolutionChanged(changed);
+    }
+  }
+
+  private static int indexOf(Size resolution) {
+    for (int i = 0; i < RESOLUTIONS.length; i++) {
+      if (RESOLUTIONS[i].equals(resolution)) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Parses a resolution like 1280x720, the order of the sides doesn't matter.
+   *
+   * @param resolution the resolution string
+   * @return the resolution with the long side as width, or null if it can't be parsed
+   */
+  public static Size parseResolution(String resolution) {
+    if (resolution == null) {
+      return null;
+    }
+    String[] parts = resolution.toLowerCase().split("x");
+    if (parts.length == 2) {
+      try {
+        int first = Integer.parseInt(parts[0].trim());
+        int second = Integer.parseInt(parts[1].trim());
+        if (first > 0 && second > 0) {
+          return new Size(Math.max(first, second), Math.min(first, second));
+        }
+      } catch (NumberFormatException e) {
+        // do nothing
+      }
+    }
+    return null;
+  }
+
+  public interface Listener {
+
+    void onResolutionChanged(Size resolution);
+  }
+}
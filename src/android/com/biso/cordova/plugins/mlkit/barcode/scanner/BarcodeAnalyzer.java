@@ -1,117 +1,656 @@
 package com.biso.cordova.plugins.mlkit.barcode.scanner;
-import static com.biso.cordova.plugins.mlkit.barcode.scanner.Utils.getTranslationMatrix;
-import static com.biso.cordova.plugins.mlkit.barcode.scanner.Utils.mapRect;
+import static com.biso.cordova.plugins.mlkit.barcode.scanner.ScanMetrics.METRICS;
+import static com.biso.cordova.plugins.mlkit.barcode.scanner.Utils.setTranslationMatrix;
 
 import android.content.Intent;
 import android.graphics.Matrix;
 import android.graphics.RectF;
+import android.os.SystemClock;
 import android.util.Log;
 import androidx.annotation.NonNull;
 import androidx.camera.core.ImageAnalysis.Analyzer;
 import androidx.camera.core.ImageProxy;
-import com.google.android.gms.tasks.Task;
-import com.google.android.gms.tasks.Tasks;
 import com.google.mlkit.vision.barcode.BarcodeScanner;
-import com.google.mlkit.vision.barcode.BarcodeScannerOptions;
-import com.google.mlkit.vision.barcode.BarcodeScanning;
 import com.google.mlkit.vision.barcode.common.Barcode;
 import com.google.mlkit.vision.common.InputImage;
 import java.util.ArrayList;
-import java.util.HashSet;
+import java.util.Collections;
 import java.util.List;
-import java.util.concurrent.ExecutionException;
-import java.util.stream.Collectors;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import org.json.JSONException;
 
 public class BarcodeAnalyzer implements Analyzer {
 
   public static final String BARCODES = "barcodes";
+  // results are handed to the plugin as json string, serialized once on the analyzer thread
+  public static final String RESULT = "result";
+  public static final String BATCH_COUNT = "batchCount";
   private static final String ANALYZER = "BarcodeAnalyzer";
-  private List<DetectedBarcode> lastBarcodes;
-  private int stableCounter = 0;
-  private final BarcodeScanner scanner;
-  private final CameraOverlay cameraOverlay;
+  // part of the scan area on every side that a barcode has to stay clear of for the fast path
+  private static final float FAST_PATH_INSET = 0.1f;
+  private ArrayList<DetectedBarcode> detectedBarcodes = new ArrayList<>();
+  private ArrayList<DetectedBarcode> lastBarcodes = new ArrayList<>();
+  private final ArrayList<DetectedBarcode> barcodesInScanArea = new ArrayList<>();
+  private final ArrayList<DetectedBarcode> barcodePool = new ArrayList<>();
+  private ArrayList<DetectedBarcode> lastReportedBarcodes = new ArrayList<>();
+  private final ArrayList<DetectedBarcode> batchBarcodes = new ArrayList<>();
+  private final ArrayList<DetectedBarcode> recentBarcodes = new ArrayList<>();
+  private final Matrix matrix = new Matrix();
+  private final RectF imageArea = new RectF();
+  private final RectF matrixSurfaceArea = new RectF();
+  private final DetectedBarcode fastPathCandidate = new DetectedBarcode();
+  private final RectF fastPathArea = new RectF();
+  private int fastPathCounter = 0;
+  private int matrixOffsetX = 0;
+  private int matrixOffsetY = 0;
+  private final Stabilizer<? super DetectedBarcode> stabilizer;
+  private BarcodeScanner scanner;
+  private int poolGeneration;
+  private final ScanAreaSource scanAreaSource;
   private final BarcodesListener barcodesListener;
   private final ScannerSettings settings;
+  private final ExecutorService postProcessor;
+  private final boolean pooled;
+  private final ScanAreaCropper cropper;
+  private final FrameQualityGate qualityGate;
+  private final AnalysisPolicy analysisPolicy;
+  private final ScanMetrics metrics;
+  private volatile ResultStream resultStream;
+  private volatile BarcodeTracker tracker;
+  private volatile AdaptiveFormats adaptiveFormats;
+  private final List<DetectionFeedback> feedback = new CopyOnWriteArrayList<>();
+  private BarcodeScanner narrowedScanner;
+  private int narrowedScannerFormats = 0;
+  private volatile boolean closed = false;
 
   public BarcodeAnalyzer(ScannerSettings settings, BarcodesListener barcodesListener,
-      CameraOverlay cameraOverlay) {
-    int useBarcodeFormats = settings.getBarcodeFormats();
-    if (useBarcodeFormats == 0 || useBarcodeFormats == 1234) {
-      useBarcodeFormats = (Barcode.FORMAT_CODE_39 | Barcode.FORMAT_DATA_MATRIX);
-    }
-    scanner = BarcodeScanning
-        .getClient(
-            new BarcodeScannerOptions.Builder().setBarcodeFormats(useBarcodeFormats).build());
+      ScanAreaSource scanAreaSource, AnalysisPolicy analysisPolicy, ScanMetrics metrics) {
+    this(settings, barcodesListener, scanAreaSource, analysisPolicy, metrics,
+        BarcodeScannerPool.acquire(settings.getBarcodeFormats()),
+        ScanExecutors.getPostProcessingExecutor(settings.isSplitPostProcessing()), true);
+  }
+
+  /**
+   * Creates an analyzer with a detector and post processing executor that are not managed by the
+   * analyzer. Allows running the analyzer without a camera and with canned detector results, e.g.
+   * with an executor that processes frames on the calling thread.
+   *
+   * @param settings         scanner settings
+   * @param barcodesListener receives the results
+   * @param scanAreaSource   where the scan area is taken from
+   * @param analysisPolicy   frame rate and resolution policy
+   * @param metrics          collects timing and frame counts
+   * @param scanner          detector used for every frame
+   * @param postProcessor    executor the post processing stage runs on
+   */
+  public BarcodeAnalyzer(ScannerSettings settings, BarcodesListener barcodesListener,
+      ScanAreaSource scanAreaSource, AnalysisPolicy analysisPolicy, ScanMetrics metrics,
+      BarcodeScanner scanner, ExecutorService postProcessor) {
+    this(settings, barcodesListener, scanAreaSource, analysisPolicy, metrics, scanner,
+        postProcessor, false);
+  }
+
+  private BarcodeAnalyzer(ScannerSettings settings, BarcodesListener barcodesListener,
+      ScanAreaSource scanAreaSource, AnalysisPolicy analysisPolicy, ScanMetrics metrics,
+      BarcodeScanner scanner, ExecutorService postProcessor, boolean pooled) {
+    this.scanner = scanner;
+    this.poolGeneration = BarcodeScannerPool.getGeneration();
+    this.postProcessor = postProcessor;
+    this.pooled = pooled;
     this.settings = settings;
-    this.lastBarcodes = new ArrayList<>();
     this.barcodesListener = barcodesListener;
-    this.cameraOverlay = cameraOverlay;
+    this.scanAreaSource = scanAreaSource;
+    this.analysisPolicy = analysisPolicy;
+    this.metrics = metrics;
+    this.stabilizer = createStabilizer(settings);
+    if (settings.getRecentlySeenTtl() > 0) {
+      RecentlySeenCache.setMaxSize(settings.getRecentlySeenSize());
+      if (!settings.isRecentlySeenPersist()) {
+        RecentlySeenCache.clear();
+      }
+    }
+    this.cropper = settings.isCropToScanArea() ? new ScanAreaCropper(settings.getScanAreaMargin())
+        : null;
+    this.qualityGate = FrameQualityGate.isEnabled(settings) ? new FrameQualityGate(settings)
+        : null;
   }
 
   @Override
   public void analyze(@NonNull ImageProxy imageProxy) {
-    if (imageProxy.getImage() == null) {
+    metrics.onFrameReceived();
+    if (closed || !analysisPolicy.shouldAnalyze(imageProxy.getImageInfo().getTimestamp())) {
+      metrics.onFrameDropped();
+      imageProxy.close();
+      return;
+    }
+    if (qualityGate != null && !qualityGate.accept(imageProxy, scanAreaSource.getSurfaceArea(),
+        scanAreaSource.getScanArea())) {
+      // blurry, dark or moving frames are not worth a detector call
+      metrics.onFrameRejected();
       imageProxy.close();
       return;
     }
 
-    InputImage inputImage = InputImage.fromMediaImage(imageProxy.getImage(),
-        imageProxy.getImageInfo().getRotationDegrees());
-
-    Task<List<Barcode>> scannerTask = scanner.process(inputImage);
-    try {
-      List<Barcode> barcodes = Tasks.await(scannerTask);
+    int rotation = imageProxy.getImageInfo().getRotationDegrees();
+    boolean swapped = rotation == 90 || rotation == 270;
+    int imageWidth = swapped ? imageProxy.getHeight() : imageProxy.getWidth();
+    int imageHeight = swapped ? imageProxy.getWidth() : imageProxy.getHeight();
 
-      RectF source;
-      if (inputImage.getRotationDegrees() == 90) {
-        source = new RectF(0, 0, inputImage.getHeight(), inputImage.getWidth());
+    if (cropper != null) {
+      RectF surfaceArea = scanAreaSource.getSurfaceArea();
+      RectF scanArea = scanAreaSource.getScanArea();
+      InputImage cropped = null;
+      if (surfaceArea != null && scanArea != null) {
+        cropped = cropper.crop(imageProxy, surfaceArea, scanArea);
+      }
+      // the frame has been copied, the camera can have it back right away
+      imageProxy.close();
+      if (cropped != null) {
+        detect(cropped, cropper::release, imageWidth, imageHeight, cropper.getOffsetX(),
+            cropper.getOffsetY());
       } else {
-        source = new RectF(0, 0, inputImage.getWidth(), inputImage.getHeight());
+        metrics.onFrameDropped();
       }
-      Matrix matrix = getTranslationMatrix(source, cameraOverlay.getSurfaceArea());
+      return;
+    }
+
+    if (imageProxy.getImage() == null) {
+      metrics.onFrameDropped();
+      imageProxy.close();
+      return;
+    }
+    InputImage inputImage = InputImage.fromMediaImage(imageProxy.getImage(), rotation);
+    detect(inputImage, imageProxy::close, imageWidth, imageHeight, 0, 0);
+  }
+
+  /**
+   * First stage of the pipeline, runs the detector on the image.
+   *
+   * @param inputImage  the image to detect barcodes in
+   * @param onDetected  called as soon as the detector doesn't need the image anymore
+   * @param imageWidth  width of the whole upright camera frame
+   * @param imageHeight height of the whole upright camera frame
+   * @param offsetX     horizontal position of inputImage inside the camera frame
+   * @param offsetY     vertical position of inputImage inside the camera frame
+   */
+  private void detect(InputImage inputImage, Runnable onDetected, int imageWidth,
+      int imageHeight, int offsetX, int offsetY) {
+    // the image has to be released as soon as the detector is done with it, so the camera can
+    // deliver the next frame while the results are still being processed
+    long start = SystemClock.elapsedRealtime();
+    AdaptiveFormats adaptive = adaptiveFormats;
+    int formats = adaptive != null ? adaptive.selectFormats() : 0;
+    getScanner(formats).process(inputImage)
+        .addOnCompleteListener(Runnable::run, task -> {
+          onDetected.run();
+          long latency = SystemClock.elapsedRealtime() - start;
+          analysisPolicy.onFrameDetected(latency);
+          metrics.onFrameDetected(latency);
+        })
+        .addOnSuccessListener(this::postProcess, barcodes -> {
+          if (adaptive != null) {
+            adaptive.onDetected(formats, barcodes);
+          }
+          processBarcodes(barcodes, imageWidth, imageHeight, offsetX, offsetY, start);
+        })
+        .addOnFailureListener(this::postProcess, e -> Log.e(ANALYZER, e.getMessage()));
+  }
+
+  /**
+   * Returns the client for the formats. Clients for narrowed formats come from the pool and are
+   * kept until different formats are requested.
+   *
+   * @param formats formats to detect, 0 or the configured formats for the regular client
+   * @return the client
+   */
+  private synchronized BarcodeScanner getScanner(int formats) {
+    if (pooled && !closed && poolGeneration != BarcodeScannerPool.getGeneration()) {
+      // the pool closed its clients because the executors were shut down, they can't detect anymore
+      poolGeneration = BarcodeScannerPool.getGeneration();
+      scanner = BarcodeScannerPool.acquire(settings.getBarcodeFormats());
+      narrowedScanner = null;
+      narrowedScannerFormats = 0;
+    }
+    if (closed || formats == 0 || formats == BarcodeScannerPool.getEffectiveFormats(
+        settings.getBarcodeFormats())) {
+      return scanner;
+    }
+    if (formats != narrowedScannerFormats) {
+      releaseNarrowedScanner();
+      narrowedScanner = BarcodeScannerPool.acquire(formats);
+      narrowedScannerFormats = formats;
+    }
+    return narrowedScanner;
+  }
 
-      List<DetectedBarcode> detectedBarcodes = barcodes.stream().map(
-              barcode -> new DetectedBarcode(barcode, mapRect(barcode.getBoundingBox(), matrix),
-                  cameraOverlay.getScanArea().centerX(), cameraOverlay.getScanArea().centerY()))
-          .collect(Collectors.toList());
+  private synchronized void releaseScanners() {
+    // clients of an older generation are already closed and gone from the pool
+    if (poolGeneration == BarcodeScannerPool.getGeneration()) {
+      BarcodeScannerPool.release(settings.getBarcodeFormats());
+    }
+    releaseNarrowedScanner();
+  }
 
-      if (settings.isDebugOverlay()) {
-        cameraOverlay.drawDebugOverlay(detectedBarcodes);
+  private synchronized void releaseNarrowedScanner() {
+    if (narrowedScanner != null) {
+      if (poolGeneration == BarcodeScannerPool.getGeneration()) {
+        BarcodeScannerPool.release(narrowedScannerFormats);
       }
+      narrowedScanner = null;
+      narrowedScannerFormats = 0;
+    }
+  }
+
+  /**
+   * Second stage of the pipeline, maps the detected barcodes to the overlay and checks them for
+   * stability and position. Always runs on the post processing thread.
+   *
+   * @param barcodes    barcodes found by the detector
+   * @param imageWidth  width of the whole upright camera frame
+   * @param imageHeight height of the whole upright camera frame
+   * @param offsetX     horizontal offset of the detector coordinates inside the camera frame
+   * @param offsetY     vertical offset of the detector coordinates inside the camera frame
+   * @param timestamp   time the detection of the frame started at in milliseconds
+   */
+  private void processBarcodes(List<Barcode> barcodes, int imageWidth, int imageHeight,
+      int offsetX, int offsetY, long timestamp) {
+    RectF scanArea = scanAreaSource.getScanArea();
+    if (closed || scanArea == null || scanAreaSource.getSurfaceArea() == null) {
+      // overlay hasn't been laid out yet, results can't be mapped
+      return;
+    }
+
+    updateMatrix(imageWidth, imageHeight, offsetX, offsetY);
+
+    recycle(detectedBarcodes);
+    ArrayList<DetectedBarcode> current = detectedBarcodes;
+    for (int i = 0; i < barcodes.size(); i++) {
+      current.add(obtainBarcode().set(barcodes.get(i), matrix, scanArea.centerX(),
+          scanArea.centerY()));
+    }
 
-      if (areBarcodesStable(detectedBarcodes) && stableCounter >= settings.getStableThreshold()) {
-        ArrayList<DetectedBarcode> barcodesInScanArea = (ArrayList<DetectedBarcode>) detectedBarcodes.stream()
-            .filter(barcode -> barcode.isInScanArea(cameraOverlay.getScanArea(), settings.isIgnoreRotatedBarcodes())).sorted()
-            .collect(Collectors.toList());
+    if (current.isEmpty()) {
+      lastReportedBarcodes.clear();
+    } else {
+      metrics.onStabilizationFrame();
+    }
+
+    BarcodeTracker currentTracker = tracker;
+    if (currentTracker != null) {
+      currentTracker.update(current, timestamp);
+    }
+
+    boolean stable = areBarcodesStable();
+    boolean accepted = isFastPathStable(current, scanArea) || stable;
+    // indexed, an iterator would be garbage on every frame
+    for (int i = 0; i < feedback.size(); i++) {
+      feedback.get(i).onFrame(current, scanArea, accepted);
+    }
+    if (accepted) {
+      barcodesInScanArea.clear();
+      for (int i = 0; i < current.size(); i++) {
+        DetectedBarcode barcode = current.get(i);
+        if (barcode.isInScanArea(scanArea, settings.isIgnoreRotatedBarcodes())) {
+          barcodesInScanArea.add(barcode);
+        }
+      }
+      Collections.sort(barcodesInScanArea);
+      boolean onlyRecent = !barcodesInScanArea.isEmpty() && filterRecentlySeen(barcodesInScanArea);
 
-        if (!barcodesInScanArea.isEmpty()) {
-          Intent data = new Intent();
-          data.putParcelableArrayListExtra(BARCODES, barcodesInScanArea);
-          barcodesListener.onBarcodesFound(data);
+      if (!barcodesInScanArea.isEmpty()) {
+        if (currentTracker != null) {
+          currentTracker.markAccepted(barcodesInScanArea);
+        }
+        ResultStream stream = resultStream;
+        if (settings.isBatchMode()) {
+          collectBatch(barcodesInScanArea);
+        } else if (stream != null) {
+          rememberRecentlySeen(barcodesInScanArea);
+          stream.offer(barcodesInScanArea, System.currentTimeMillis());
+        } else if (settings.isContinuousMode()) {
+          reportContinuous(barcodesInScanArea);
         } else {
-          stableCounter = 0;
-          lastBarcodes = new ArrayList<>();
+          // single scans are done after the first result, frames still in the pipeline are ignored
+          closed = true;
+          rememberRecentlySeen(barcodesInScanArea);
+          barcodesListener.onBarcodesFound(createResult(barcodesInScanArea));
+        }
+      } else if (!onlyRecent) {
+        stabilizer.reset();
+        recycle(lastBarcodes);
+        lastReportedBarcodes.clear();
+      }
+      barcodesInScanArea.clear();
+    }
+  }
+
+  /**
+   * Updates the matrix that maps detector coordinates to overlay coordinates. It only changes when
+   * the frame size, rotation, crop or overlay size change, so it isn't recalculated every frame.
+   */
+  private void updateMatrix(int imageWidth, int imageHeight, int offsetX, int offsetY) {
+    RectF surfaceArea = scanAreaSource.getSurfaceArea();
+    if (imageArea.right == imageWidth && imageArea.bottom == imageHeight
+        && matrixOffsetX == offsetX && matrixOffsetY == offsetY
+        && matrixSurfaceArea.equals(surfaceArea)) {
+      return;
+    }
+    imageArea.set(0, 0, imageWidth, imageHeight);
+    matrixSurfaceArea.set(surfaceArea);
+    matrixOffsetX = offsetX;
+    matrixOffsetY = offsetY;
+    setTranslationMatrix(imageArea, surfaceArea, matrix);
+    matrix.preTranslate(offsetX, offsetY);
+  }
+
+  private DetectedBarcode obtainBarcode() {
+    int last = barcodePool.size() - 1;
+    return last >= 0 ? barcodePool.remove(last) : new DetectedBarcode();
+  }
+
+  private void recycle(ArrayList<DetectedBarcode> barcodes) {
+    for (int i = 0; i < barcodes.size(); i++) {
+      barcodePool.add(barcodes.get(i));
+    }
+    barcodes.clear();
+  }
+
+  /**
+   * Barcodes from the pool are overwritten by the next frame, so everything that leaves the
+   * analyzer has to be copied.
+   */
+  private static ArrayList<DetectedBarcode> copyOf(List<DetectedBarcode> barcodes) {
+    ArrayList<DetectedBarcode> copy = new ArrayList<>(barcodes.size());
+    for (int i = 0; i < barcodes.size(); i++) {
+      copy.add(new DetectedBarcode(barcodes.get(i)));
+    }
+    return copy;
+  }
+
+  private void postProcess(Runnable command) {
+    try {
+      postProcessor.execute(command);
+    } catch (RejectedExecutionException e) {
+      // analyzer was closed while the detector was running, the result isn't needed anymore
+    }
+  }
+
+  /**
+   * In continuous mode the analyzer keeps running after a result, so the same barcodes would be
+   * reported again every stableThreshold frames. They are only reported again after they left the
+   * scan area or the set of barcodes changed.
+   *
+   * @param barcodesInScanArea stable barcodes inside the scan area
+   */
+  private void reportContinuous(List<DetectedBarcode> barcodesInScanArea) {
+    if (StabilityCheck.isSameSet(lastReportedBarcodes, barcodesInScanArea)) {
+      return;
+    }
+    lastReportedBarcodes = copyOf(barcodesInScanArea);
+    rememberRecentlySeen(barcodesInScanArea);
+    barcodesListener.onBarcodesFound(createResult(lastReportedBarcodes));
+  }
+
+  /**
+   * In batch mode every distinct barcode is collected once. The batch is reported as one result as
+   * soon as the batch size is reached, new barcodes are reported as progress in between if
+   * configured.
+   *
+   * @param barcodesInScanArea stable barcodes inside the scan area
+   */
+  private void collectBatch(List<DetectedBarcode> barcodesInScanArea) {
+    ArrayList<DetectedBarcode> added = null;
+    Intent result = null;
+    int count;
+    synchronized (batchBarcodes) {
+      if (closed) {
+        return;
+      }
+      int batchSize = settings.getBatchSize();
+      for (int i = 0; i < barcodesInScanArea.size(); i++) {
+        DetectedBarcode barcode = barcodesInScanArea.get(i);
+        if (batchBarcodes.contains(barcode) || (batchSize > 0
+            && batchBarcodes.size() >= batchSize)) {
+          continue;
         }
+        DetectedBarcode copy = new DetectedBarcode(barcode);
+        batchBarcodes.add(copy);
+        if (added == null) {
+          added = new ArrayList<>();
+        }
+        added.add(copy);
+      }
+      if (added == null) {
+        return;
       }
-    } catch (ExecutionException e) {
-      Log.e(ANALYZER, e.getMessage());
-    } catch (InterruptedException e) {
-      Log.e(ANALYZER, e.getMessage());
-      Thread.currentThread().interrupt();
+      rememberRecentlySeen(added);
+      count = batchBarcodes.size();
+      if (batchSize > 0 && batchBarcodes.size() >= batchSize) {
+        closed = true;
+        result = createResult(batchBarcodes);
+      }
+    }
+
+    if (result != null) {
+      barcodesListener.onBarcodesFound(result);
+    } else if (settings.isBatchProgress()) {
+      Intent progress = new Intent();
+      progress.putExtra(RESULT, DetectedBarcode.toJson(added));
+      progress.putExtra(BATCH_COUNT, count);
+      barcodesListener.onBarcodesFound(progress);
     }
-    imageProxy.close();
   }
 
-  private boolean areBarcodesStable(List<DetectedBarcode> barcodes) {
-    if (!barcodes.isEmpty() && (barcodes.size() == lastBarcodes.size())
-        && (new HashSet<>(lastBarcodes).containsAll(barcodes))) {
-      stableCounter++;
-      Log.d(ANALYZER,
-          "barcodes stable for " + stableCounter + "/" + settings.getStableThreshold());
-      return true;
+  /**
+   * Removes barcodes that have been returned within the recently seen time to live, or moves them
+   * to the end of the list if they should only be deprioritized. Keeps the order otherwise.
+   *
+   * @param barcodes sorted barcodes, filtered in place
+   * @return true if the list only contained recently seen barcodes and they were removed
+   */
+  private boolean filterRecentlySeen(ArrayList<DetectedBarcode> barcodes) {
+    long ttl = settings.getRecentlySeenTtl();
+    if (ttl <= 0) {
+      return false;
+    }
+    long now = SystemClock.elapsedRealtime();
+    recentBarcodes.clear();
+    int kept = 0;
+    for (int i = 0; i < barcodes.size(); i++) {
+      DetectedBarcode barcode = barcodes.get(i);
+      if (RecentlySeenCache.isRecent(barcode, now, ttl)) {
+        recentBarcodes.add(barcode);
+      } else {
+        barcodes.set(kept++, barcode);
+      }
+    }
+    if (recentBarcodes.isEmpty()) {
+      return false;
+    }
+
+    while (barcodes.size() > kept) {
+      barcodes.remove(barcodes.size() - 1);
+    }
+    boolean onlyRecent = barcodes.isEmpty();
+    if (RecentlySeenCache.SKIP.equals(settings.getRecentlySeenMode())) {
+      if (onlyRecent && Log.isLoggable(ANALYZER, Log.DEBUG)) {
+        Log.d(ANALYZER, "skipping recently seen " + recentBarcodes);
+      }
+      recentBarcodes.clear();
+      return onlyRecent;
+    }
+    for (int i = 0; i < recentBarcodes.size(); i++) {
+      barcodes.add(recentBarcodes.get(i));
     }
-    lastBarcodes = barcodes;
-    stableCounter = 0;
+    recentBarcodes.clear();
     return false;
   }
+
+  private void rememberRecentlySeen(List<DetectedBarcode> barcodes) {
+    if (settings.getRecentlySeenTtl() > 0) {
+      RecentlySeenCache.add(barcodes, SystemClock.elapsedRealtime());
+    }
+  }
+
+  /**
+   * Ends a batch before the batch size is reached, e.g. on timeout or when the user stops the scan.
+   * No more barcodes are collected afterwards.
+   *
+   * @return result with all barcodes collected so far
+   */
+  public Intent finishBatch() {
+    synchronized (batchBarcodes) {
+      closed = true;
+      return createResult(batchBarcodes);
+    }
+  }
+
+  /**
+   * The intent is only used as container inside the process, it is never parceled.
+   */
+  private Intent createResult(List<DetectedBarcode> barcodes) {
+    Intent data = new Intent();
+    data.putExtra(RESULT, DetectedBarcode.toJson(barcodes));
+    metrics.onBarcodesReported(barcodes);
+    if (settings.isReportMetrics()) {
+      try {
+        data.putExtra(METRICS, metrics.onResult().toString());
+      } catch (JSONException e) {
+        Log.e(ANALYZER, e.getMessage());
+      }
+    }
+    return data;
+  }
+
+  /**
+   * Adds a receiver that is told about every detected frame, e.g. the focus, the zoom or the
+   * debug overlay. Receivers are called in the order they were added.
+   *
+   * @param detectionFeedback the receiver
+   */
+  public void addDetectionFeedback(DetectionFeedback detectionFeedback) {
+    feedback.add(detectionFeedback);
+  }
+
+  /**
+   * Enables narrowing the detected formats to the ones that actually show up. Only has an effect on
+   * analyzers that take their detector from the pool.
+   *
+   * @param adaptiveFormats format statistics and strategy, null to always detect all formats
+   */
+  public void setAdaptiveFormats(AdaptiveFormats adaptiveFormats) {
+    this.adaptiveFormats = pooled ? adaptiveFormats : null;
+  }
+
+  /**
+   * Sets the tracker the detected barcodes are fed into.
+   *
+   * @param tracker the tracker, null to stop tracking
+   */
+  public void setTracker(BarcodeTracker tracker) {
+    this.tracker = tracker;
+  }
+
+  /**
+   * Sets the stream results are sent to while the scan is running. With a stream every stable
+   * frame is reported, the stream takes care of limiting the rate.
+   *
+   * @param resultStream the stream, null to report results through the listener
+   */
+  public void setResultStream(ResultStream resultStream) {
+    this.resultStream = resultStream;
+  }
+
+  /**
+   * Returns the scanner client to the pool. The analyzer must not be used afterwards. Detectors
+   * passed in from outside are left alone, the post processing executor is never shut down, it is
+   * either shared with other scans or owned by whoever passed it in.
+   */
+  public void close() {
+    closed = true;
+    if (pooled) {
+      releaseScanners();
+    }
+    AdaptiveFormats adaptive = adaptiveFormats;
+    if (adaptive != null) {
+      adaptive.save();
+    }
+  }
+
+  private boolean areBarcodesStable() {
+    boolean stable = stabilizer.update(detectedBarcodes, lastBarcodes,
+        SystemClock.elapsedRealtime());
+    if (stable && Log.isLoggable(ANALYZER, Log.DEBUG)) {
+      Log.d(ANALYZER, "barcodes accepted by " + settings.getStabilizationMode() + " stabilizer");
+    }
+    // swap buffers, the current barcodes become the reference for the next frame. The current
+    // barcodes stay valid until the next frame recycles them.
+    ArrayList<DetectedBarcode> previous = lastBarcodes;
+    lastBarcodes = detectedBarcodes;
+    detectedBarcodes = previous;
+    return stable;
+  }
+
+  /**
+   * Fast path for the most common case of a single barcode in the middle of the scan area. Such a
+   * barcode is accepted after fastPathThreshold frames, as long as it doesn't move by more than
+   * the movement tolerance between frames. As soon as a second barcode shows up the regular
+   * stabilizer decides.
+   *
+   * @param barcodes barcodes of the current frame
+   * @param scanArea the scan area
+   * @return true if the barcode is accepted by the fast path
+   */
+  private boolean isFastPathStable(List<DetectedBarcode> barcodes, RectF scanArea) {
+    int threshold = settings.getFastPathThreshold();
+    if (threshold <= 0) {
+      return false;
+    }
+    if (barcodes.size() != 1) {
+      fastPathCounter = 0;
+      return false;
+    }
+
+    DetectedBarcode barcode = barcodes.get(0);
+    fastPathArea.set(scanArea);
+    fastPathArea.inset(scanArea.width() * FAST_PATH_INSET, scanArea.height() * FAST_PATH_INSET);
+    if (!barcode.isInScanArea(fastPathArea, settings.isIgnoreRotatedBarcodes())) {
+      fastPathCounter = 0;
+      return false;
+    }
+
+    if (fastPathCounter > 0 && barcode.equals(fastPathCandidate)
+        && hasMovedLess(barcode.getBoundingBox(), fastPathCandidate.getBoundingBox(), scanArea)) {
+      fastPathCounter++;
+    } else {
+      fastPathCounter = 1;
+    }
+    fastPathCandidate.set(barcode);
+
+    boolean stable = fastPathCounter >= threshold;
+    if (stable && Log.isLoggable(ANALYZER, Log.DEBUG)) {
+      Log.d(ANALYZER, "single barcode accepted by fast path after " + fastPathCounter + " frames");
+    }
+    return stable;
+  }
+
+  private boolean hasMovedLess(RectF bounds, RectF lastBounds, RectF scanArea) {
+    double tolerance = settings.getFastPathMovementTolerance();
+    float maxX = (float) (scanArea.width() * tolerance);
+    float maxY = (float) (scanArea.height() * tolerance);
+    return Math.abs(bounds.left - lastBounds.left) <= maxX
+        && Math.abs(bounds.right - lastBounds.right) <= maxX
+        && Math.abs(bounds.top - lastBounds.top) <= maxY
+        && Math.abs(bounds.bottom - lastBounds.bottom) <= maxY;
+  }
+
+  private static Stabilizer<? super DetectedBarcode> createStabilizer(ScannerSettings settings) {
+    if (VotingStabilizer.MODE.equals(settings.getStabilizationMode())) {
+      return new VotingStabilizer<>(DetectedBarcode::new, settings.getStabilizationWindow(),
+          settings.getStabilizationHitRatio(), settings.getStabilizationDwellTime());
+    }
+    return new StabilityCheck(settings.getStableThreshold());
+  }
 }
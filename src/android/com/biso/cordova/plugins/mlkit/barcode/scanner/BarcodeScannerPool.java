@@ -0,0 +1,213 @@
+package com.biso.cordova.plugins.mlkit.barcode.scanner;
+
+import android.graphics.Bitmap;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+import com.google.mlkit.vision.barcode.BarcodeScanner;
+import com.google.mlkit.vision.barcode.BarcodeScannerOptions;
+import com.google.mlkit.vision.barcode.BarcodeScanning;
+import com.google.mlkit.vision.barcode.common.Barcode;
+import com.google.mlkit.vision.common.InputImage;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+
+/**
+ * Process wide cache of MLKit barcode scanner clients, keyed by the barcode formats they detect and
+ * the executor they detect on. Creating a client and initializing its model is expensive, so
+ * clients are shared between scans and only closed after they haven't been used for a while.
+ */
+public class BarcodeScannerPool {
+
+  private static final String POOL = "BarcodeScannerPool";
+  public static final long DEFAULT_IDLE_TIMEOUT = 60_000;
+  private static final int WARM_UP_IMAGE_SIZE = 32;
+  private static final Map<Key, PooledClient> clients = new HashMap<>();
+  private static final Handler handler = new Handler(Looper.getMainLooper());
+  private static long idleTimeout = DEFAULT_IDLE_TIMEOUT;
+  private static volatile int generation = 0;
+
+  /**
+   * Returns the barcode formats that are actually used for a client. 0 and 1234 are the "nothing
+   * configured" values of the settings and fall back to Code 39 and Data Matrix.
+   *
+   * @param barcodeFormats barcode formats as configured in the settings
+   * @return barcode formats bitmask used for the client
+   */
+  public static int getEffectiveFormats(int barcodeFormats) {
+    if (barcodeFormats == 0 || barcodeFormats == 1234) {
+      return Barcode.FORMAT_CODE_39 | Barcode.FORMAT_DATA_MATRIX;
+    }
+    return barcodeFormats;
+  }
+
+  /**
+   * Gets a client for the barcode formats that detects on the detection thread of
+   * {@link ScanExecutors}, creating one if there is none yet. Every call has to be matched by a
+   * call to {@link #release(int)}.
+   *
+   * @param barcodeFormats barcode formats as configured in the settings
+   * @return a shared barcode scanner client
+   */
+  public static BarcodeScanner acquire(int barcodeFormats) {
+    return acquire(barcodeFormats, ScanExecutors.getDetectionExecutor());
+  }
+
+  /**
+   * Gets a client for the barcode formats that detects on the executor, creating one if there is
+   * none yet. Every call has to be matched by a call to {@link #release(int, Executor)}.
+   *
+   * @param barcodeFormats barcode formats as configured in the settings
+   * @param executor       executor the client runs detection on
+   * @return a shared barcode scanner client
+   */
+  public static synchronized BarcodeScanner acquire(int barcodeFormats, Executor executor) {
+    Key key = new Key(getEffectiveFormats(barcodeFormats), executor);
+    PooledClient client = clients.get(key);
+    if (client == null) {
+      Log.d(POOL, "creating client for formats " + key.formats);
+      client = new PooledClient(key);
+      clients.put(key, client);
+    }
+    handler.removeCallbacks(client.eviction);
+    client.references++;
+    return client.scanner;
+  }
+
+  /**
+   * Releases a client acquired by {@link #acquire(int)}. Once a client isn't referenced anymore it
+   * is closed after the idle timeout.
+   *
+   * @param barcodeFormats barcode formats as configured in the settings
+   */
+  public static void release(int barcodeFormats) {
+    release(barcodeFormats, ScanExecutors.getDetectionExecutor());
+  }
+
+  /**
+   * Releases a client acquired by {@link #acquire(int, Executor)}. Once a client isn't referenced
+   * anymore it is closed after the idle timeout.
+   *
+   * @param barcodeFormats barcode formats as configured in the settings
+   * @param executor       executor the client was acquired for
+   */
+  public static synchronized void release(int barcodeFormats, Executor executor) {
+    PooledClient client = clients.get(new Key(getEffectiveFormats(barcodeFormats), executor));
+    if (client == null || client.references == 0) {
+      return;
+    }
+    client.references--;
+    if (client.references == 0) {
+      handler.postDelayed(client.eviction, idleTimeout);
+    }
+  }
+
+  /**
+   * Creates the client for the barcode formats and runs it on a blank image, so the model is
+   * loaded before the first camera frame arrives.
+   *
+   * @param barcodeFormats barcode formats as configured in the settings
+   * @param onComplete     called once the client is ready, may be null
+   */
+  public static void warmUp(int barcodeFormats, Runnable onComplete) {
+    BarcodeScanner scanner = acquire(barcodeFormats);
+    Bitmap blank = Bitmap.createBitmap(WARM_UP_IMAGE_SIZE, WARM_UP_IMAGE_SIZE,
+        Bitmap.Config.ARGB_8888);
+    scanner.process(InputImage.fromBitmap(blank, 0)).addOnCompleteListener(task -> {
+      release(barcodeFormats);
+      if (onComplete != null) {
+        onComplete.run();
+      }
+    });
+  }
+
+  /**
+   * Sets how long unused clients are kept before they are closed.
+   *
+   * @param timeout idle timeout in milliseconds
+   */
+  public static synchronized void setIdleTimeout(long timeout) {
+    idleTimeout = Math.max(0, timeout);
+  }
+
+  /**
+   * Closes all clients, also the ones that are in use, because the executors they detect on are
+   * shut down. Called by {@link ScanExecutors#shutdown()}. Users of the pool notice it by a
+   * changed {@link #getGeneration()} and acquire new clients.
+   */
+  static synchronized void closeAll() {
+    for (PooledClient client : clients.values()) {
+      handler.removeCallbacks(client.eviction);
+      client.scanner.close();
+    }
+    clients.clear();
+    generation++;
+  }
+
+  /**
+   * @return a number that changes every time all clients are closed, clients acquired under an
+   * older generation must not be used or released anymore
+   */
+  public static int getGeneration() {
+    return generation;
+  }
+
+  private static synchronized void evict(PooledClient client) {
+    if (client.references == 0 && clients.get(client.key) == client) {
+      Log.d(POOL, "closing idle client for formats " + client.key.formats);
+      clients.remove(client.key);
+      client.scanner.close();
+    }
+  }
+
+  private static class Key {
+
+    private final int formats;
+    private final Executor executor;
+
+    private Key(int formats, Executor executor) {
+      this.formats = formats;
+      this.executor = executor;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof Key)) {
+        return false;
+      }
+      Key other = (Key) o;
+      return formats == other.formats && executor == other.executor;
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(formats, System.identityHashCode(executor));
+    }
+  }
+
+  private static class PooledClient {
+
+    private final Key key;
+    private final BarcodeScanner scanner;
+    private final Runnable eviction = () -> evict(this);
+    private int references = 0;
+
+    private PooledClient(Key key) {
+      this.key = key;
+      this.scanner = BarcodeScanning.getClient(new BarcodeScannerOptions.Builder()
+          .setBarcodeFormats(key.formats)
+          .setExecutor(key.executor)
+          .build());
+    }
+  }
+
+  private BarcodeScannerPool() {
+    throw new IllegalStateException("Utility class");
+  }
+}
@@ -0,0 +1,203 @@
+package com.biso.cordova.plugins.mlkit.barcode.scanner;
+
+import android.graphics.RectF;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Follows barcodes from detection to detection, so their boxes can be drawn at display rate
+ * instead of only when the detector delivers a new result.
+ * <p>
+ * Detections are matched to tracks by barcode identity first and by overlap (intersection over
+ * union) second, so a barcode whose value was read differently in one frame keeps its track. In
+ * between detections the position of a track is extrapolated with a constant velocity.
+ * <p>
+ * Detections arrive on the post processing thread and tracks are read on the main thread, so all
+ * public methods are synchronized. Tracks are reused, nothing is allocated per frame once the
+ * number of barcodes doesn't grow anymore.
+ */
+public class BarcodeTracker {
+
+  private static final float MIN_IOU = 0.3f;
+  // tracks that weren't detected for this long are dropped
+  private static final long MAX_AGE = 500;
+  // extrapolation stops after this long, so lost tracks don't fly off
+  private static final long MAX_PREDICTION = 200;
+  private static final float ALPHA = 0.85f;
+  private static final float BETA = 0.3f;
+
+  private final ArrayList<Track> tracks = new ArrayList<>();
+  private final ArrayList<Track> trackPool = new ArrayList<>();
+  private final RectF intersection = new RectF();
+
+  /**
+   * Feeds the barcodes of a frame into the tracker.
+   *
+   * @param barcodes  barcodes detected in the frame, in overlay coordinates
+   * @param timestamp time the frame was captured at in milliseconds
+   */
+  public synchronized void update(List<DetectedBarcode> barcodes, long timestamp) {
+    for (int i = 0; i < tracks.size(); i++) {
+      tracks.get(i).matched = false;
+    }
+
+    for (int i = 0; i < barcodes.size(); i++) {
+      DetectedBarcode barcode = barcodes.get(i);
+      Track track = findByIdentity(barcode);
+      if (track == null) {
+        track = findByOverlap(barcode.getBoundingBox());
+      }
+      if (track == null) {
+        track = obtainTrack();
+        track.start(barcode, timestamp);
+        tracks.add(track);
+      } else {
+        track.update(barcode, timestamp);
+      }
+      track.matched = true;
+    }
+
+    for (int i = tracks.size() - 1; i >= 0; i--) {
+      Track track = tracks.get(i);
+      if (!track.matched && timestamp - track.lastSeen > MAX_AGE) {
+        trackPool.add(tracks.remove(i));
+      }
+    }
+  }
+
+  /**
+   * Marks the tracks of barcodes that have been accepted as result.
+   *
+   * @param barcodes accepted barcodes
+   */
+  public synchronized void markAccepted(List<DetectedBarcode> barcodes) {
+    for (int i = 0; i < barcodes.size(); i++) {
+      Track track = findByIdentity(barcodes.get(i));
+      if (track != null) {
+        track.accepted = true;
+      }
+    }
+  }
+
+  /**
+   * Copies the predicted bounds of all tracks and whether they have been accepted as result. Both
+   * are taken under one lock, so the tracks can't change while they are read.
+   *
+   * @param timestamp time to predict the bounds for in milliseconds
+   * @param bounds    receives the bounds of track i at index i, rectangles already in the list are
+   *                  reused and new ones are only added when there are more tracks than before
+   * @param accepted  bit i is set if the barcode of track i has been accepted as result
+   * @return number of tracks copied, entries of bounds beyond that are stale
+   */
+  public synchronized int copyPredictedTracks(long timestamp, List<RectF> bounds,
+      BitSet accepted) {
+    accepted.clear();
+    for (int i = 0; i < tracks.size(); i++) {
+      if (i == bounds.size()) {
+        bounds.add(new RectF());
+      }
+      Track track = tracks.get(i);
+      track.predict(timestamp, bounds.get(i));
+      accepted.set(i, track.accepted);
+    }
+    return tracks.size();
+  }
+
+  private Track findByIdentity(DetectedBarcode barcode) {
+    for (int i = 0; i < tracks.size(); i++) {
+      Track track = tracks.get(i);
+      if (!track.matched && track.barcode.equals(barcode)) {
+        return track;
+      }
+    }
+    return null;
+  }
+
+  private Track findByOverlap(RectF bounds) {
+    Track best = null;
+    float bestIou = MIN_IOU;
+    for (int i = 0; i < tracks.size(); i++) {
+      Track track = tracks.get(i);
+      if (track.matched) {
+        continue;
+      }
+      float iou = intersectionOverUnion(track.bounds, bounds);
+      if (iou >= bestIou) {
+        best = track;
+        bestIou = iou;
+      }
+    }
+    return best;
+  }
+
+  private float intersectionOverUnion(RectF a, RectF b) {
+    if (!intersection.setIntersect(a, b)) {
+      return 0;
+    }
+    float intersectionArea = intersection.width() * intersection.height();
+    float unionArea = a.width() * a.height() + b.width() * b.height() - intersectionArea;
+    return unionArea > 0 ? intersectionArea / unionArea : 0;
+  }
+
+  private Track obtainTrack() {
+    int last = trackPool.size() - 1;
+    return last >= 0 ? trackPool.remove(last) : new Track();
+  }
+
+  private static class Track {
+
+    private final DetectedBarcode barcode = new DetectedBarcode();
+    private final RectF bounds = new RectF();
+    private float centerX;
+    private float centerY;
+    // velocity of the center in pixels per millisecond
+    private float velocityX;
+    private float velocityY;
+    private long lastSeen;
+    private boolean accepted;
+    private boolean matched;
+
+    private void start(DetectedBarcode detected, long timestamp) {
+      barcode.set(detected);
+      bounds.set(detected.getBoundingBox());
+      centerX = bounds.centerX();
+      centerY = bounds.centerY();
+      velocityX = 0;
+      velocityY = 0;
+      lastSeen = timestamp;
+      accepted = false;
+    }
+
+    /**
+     * Alpha beta filter on the center, the size is taken from the detection as it is.
+     */
+    private void update(DetectedBarcode detected, long timestamp) {
+      long elapsed = Math.max(1, timestamp - lastSeen);
+      RectF measured = detected.getBoundingBox();
+      float predictedX = centerX + velocityX * elapsed;
+      float predictedY = centerY + velocityY * elapsed;
+      float residualX = measured.centerX() - predictedX;
+      float residualY = measured.centerY() - predictedY;
+      centerX = predictedX + ALPHA * residualX;
+      centerY = predictedY + ALPHA * residualY;
+      velocityX += BETA * residualX / elapsed;
+      velocityY += BETA * residualY / elapsed;
+
+      if (!barcode.equals(detected)) {
+        // a different value on the same spot is a different barcode (or a partial read of it)
+        accepted = false;
+      }
+      barcode.set(detected);
+      bounds.set(measured);
+      bounds.offset(centerX - measured.centerX(), centerY - measured.centerY());
+      lastSeen = timestamp;
+    }
+
+    private void predict(long timestamp, RectF out) {
+      long elapsed = Math.max(0, Math.min(MAX_PREDICTION, timestamp - lastSeen));
+      out.set(bounds);
+      out.offset(velocityX * elapsed, velocityY * elapsed);
+    }
+  }
+}
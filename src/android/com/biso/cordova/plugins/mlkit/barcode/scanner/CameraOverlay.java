@@ -2,23 +2,60 @@ package com.biso.cordova.plugins.mlkit.barcode.scanner;
 import static com.biso.cordova.plugins.mlkit.barcode.scanner.Utils.calculateRectF;
 
 import android.content.Context;
+import android.graphics.Bitmap;
 import android.graphics.Canvas;
 import android.graphics.Color;
 import android.graphics.Paint;
 import android.graphics.Path;
 import android.graphics.PixelFormat;
 import android.graphics.PorterDuff;
+import android.graphics.Rect;
 import android.graphics.RectF;
+import android.os.SystemClock;
+import android.view.Choreographer;
+import android.view.Choreographer.FrameCallback;
 import android.view.SurfaceHolder;
 import android.view.SurfaceHolder.Callback;
 import android.view.SurfaceView;
+import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.List;
 
-public class CameraOverlay extends SurfaceView implements Callback {
+public class CameraOverlay extends SurfaceView implements Callback, ScanAreaSource,
+    DetectionFeedback {
 
+  private static final int DEBUG_STROKE_WIDTH = 5;
   private final ScannerSettings settings;
   private RectF scanArea;
   private RectF surfaceArea;
+  // everything drawn every frame is prepared once, so drawing doesn't allocate
+  private final Paint focusLinePaint = new Paint();
+  private final Paint focusRectPaint = new Paint();
+  private final int focusBackgroundColor;
+  private final Paint boundsPaint = new Paint();
+  private final Paint centerLinePaint = new Paint();
+  private final Paint acceptedPaint = new Paint();
+  private final Path focusBackgroundPath = new Path();
+  private final RectF centerLine = new RectF();
+  private final RectF barcodeArea = new RectF();
+  // copy of the tracks, so the tracker can keep changing while they are drawn
+  private final ArrayList<RectF> trackBounds = new ArrayList<>();
+  private final BitSet trackAccepted = new BitSet();
+  private final Rect dirty = new Rect();
+  private final Rect lastBarcodeArea = new Rect();
+  private final Rect currentBarcodeArea = new Rect();
+  // scan area drawn once per surface size, the debug overlay copies it instead of redrawing it
+  private Bitmap scanAreaLayer;
+  private BarcodeTracker tracker;
+  private final FrameCallback trackingFrame = new FrameCallback() {
+    @Override
+    public void doFrame(long frameTimeNanos) {
+      if (tracker != null) {
+        drawTracks();
+        Choreographer.getInstance().postFrameCallback(this);
+      }
+    }
+  };
 
   public CameraOverlay(Context context, ScannerSettings settings) {
     super(context);
@@ -27,6 +64,26 @@ public class CameraOverlay extends SurfaceView implements Callback {
     SurfaceHolder holder = getHolder();
     holder.setFormat(PixelFormat.TRANSPARENT);
     holder.addCallback(this);
+
+    focusLinePaint.setColor(Color.parseColor(settings.getFocusLineColor()));
+    focusLinePaint.setStrokeWidth(settings.getFocusLineThickness());
+
+    focusRectPaint.setStyle(Paint.Style.STROKE);
+    focusRectPaint.setColor(Color.parseColor(settings.getFocusRectColor()));
+    focusRectPaint.setStrokeWidth(settings.getFocusRectBorderThickness());
+
+    focusBackgroundColor = Color.parseColor(settings.getFocusBackgroundColor());
+
+    boundsPaint.setStyle(Paint.Style.STROKE);
+    boundsPaint.setStrokeWidth(DEBUG_STROKE_WIDTH);
+    boundsPaint.setColor(Color.BLUE);
+
+    centerLinePaint.setStrokeWidth(DEBUG_STROKE_WIDTH);
+    centerLinePaint.setColor(Color.RED);
+
+    acceptedPaint.setStyle(Paint.Style.STROKE);
+    acceptedPaint.setStrokeWidth(DEBUG_STROKE_WIDTH);
+    acceptedPaint.setColor(Color.GREEN);
   }
 
   @Override
@@ -36,119 +93,221 @@ public class CameraOverlay extends SurfaceView implements Callback {
 
   @Override
   public void surfaceChanged(SurfaceHolder surfaceHolder, int i, int i1, int i2) {
-    surfaceArea = new RectF(surfaceHolder.getSurfaceFrame());
-    scanArea = calculateRectF(surfaceHolder.getSurfaceFrame().height(),
-        surfaceHolder.getSurfaceFrame().width(),
+    Rect frame = surfaceHolder.getSurfaceFrame();
+    RectF newScanArea = calculateRectF(frame.height(), frame.width(),
         settings.getDetectorSize(), settings.getAspectRatioF());
 
-    Canvas canvas = surfaceHolder.lockCanvas();
-    canvas.drawColor(0, PorterDuff.Mode.CLEAR);
+    synchronized (this) {
+      surfaceArea = new RectF(frame);
+      scanArea = newScanArea;
+      int radius = settings.getFocusRectBorderRadius();
+      focusBackgroundPath.reset();
+      focusBackgroundPath.addRoundRect(scanArea, radius, radius, Path.Direction.CCW);
 
-    drawScanArea(canvas);
+      if (scanAreaLayer != null) {
+        scanAreaLayer.recycle();
+        scanAreaLayer = null;
+      }
+      if ((settings.isDebugOverlay() || settings.isTrackBarcodes()) && frame.width() > 0 && frame.height() > 0) {
+        scanAreaLayer = Bitmap.createBitmap(frame.width(), frame.height(),
+            Bitmap.Config.ARGB_8888);
+        drawScanArea(new Canvas(scanAreaLayer));
+      }
+      lastBarcodeArea.setEmpty();
 
-    surfaceHolder.unlockCanvasAndPost(canvas);
+      Canvas canvas = surfaceHolder.lockCanvas();
+      if (canvas != null) {
+        canvas.drawColor(0, PorterDuff.Mode.CLEAR);
+        drawScanArea(canvas);
+        surfaceHolder.unlockCanvasAndPost(canvas);
+      }
+    }
   }
 
+  @Override
   public RectF getScanArea() {
     return scanArea;
   }
 
+  @Override
   public RectF getSurfaceArea() {
     return surfaceArea;
   }
 
+  /**
+   * Starts drawing the boxes of the tracked barcodes once per display frame, must be called on the
+   * main thread.
+   *
+   * @param tracker tracker the boxes are taken from
+   */
+  public void startTracking(BarcodeTracker tracker) {
+    stopTracking();
+    this.tracker = tracker;
+    Choreographer.getInstance().postFrameCallback(trackingFrame);
+  }
+
+  /**
+   * Stops drawing the tracked barcodes, must be called on the main thread.
+   */
+  public void stopTracking() {
+    tracker = null;
+    Choreographer.getInstance().removeFrameCallback(trackingFrame);
+  }
+
   @Override
   public void surfaceDestroyed(SurfaceHolder surfaceHolder) {
-    // intentionally empty
+    synchronized (this) {
+      if (scanAreaLayer != null) {
+        scanAreaLayer.recycle();
+        scanAreaLayer = null;
+      }
+    }
   }
 
   private void drawScanArea(Canvas canvas) {
     if (settings.isDrawFocusLine()) {
-      drawFocusLine(canvas, settings.getFocusLineColor(),
-          settings.getFocusLineThickness());
+      drawFocusLine(canvas);
     }
 
     if (settings.isDrawFocusRect()) {
-      drawScanAreaOutline(canvas, settings.getFocusRectColor(),
-          settings.getFocusRectBorderThickness(),
-          settings.getFocusRectBorderRadius());
+      drawScanAreaOutline(canvas, settings.getFocusRectBorderRadius());
     }
 
     if (settings.isDrawFocusBackground()) {
-      drawFocusBackground(canvas, settings.getFocusBackgroundColor(),
-          settings.getFocusRectBorderRadius());
+      drawFocusBackground(canvas);
     }
   }
 
   /**
    * Draws a rectangle outline around the scan area
    *
-   * @param canvas    The canvas to draw on
-   * @param color     String with the color in hexadecimal format
-   * @param thickness thickness of the outline
-   * @param radius    Corner radius
+   * @param canvas The canvas to draw on
+   * @param radius Corner radius
    */
-  private void drawScanAreaOutline(Canvas canvas, String color, int thickness, int radius) {
-    Paint paint = new Paint();
-    paint.setStyle(Paint.Style.STROKE);
-    paint.setColor(Color.parseColor(color));
-    paint.setStrokeWidth(thickness);
-
-    canvas.drawRoundRect(scanArea, radius, radius, paint);
+  private void drawScanAreaOutline(Canvas canvas, int radius) {
+    canvas.drawRoundRect(scanArea, radius, radius, focusRectPaint);
   }
 
   /**
    * Draws a line through the center of the scan area
    *
-   * @param canvas    The canvas to draw on
-   * @param color     String with the color in hexadecimal format
-   * @param thickness thickness of the line
+   * @param canvas The canvas to draw on
    */
-  private void drawFocusLine(Canvas canvas, String color, int thickness) {
-    Paint paint = new Paint();
-    paint.setColor(Color.parseColor(color));
-    paint.setStrokeWidth(thickness);
-
-    canvas.drawLine(scanArea.left, scanArea.centerY(), scanArea.right, scanArea.centerY(), paint);
+  private void drawFocusLine(Canvas canvas) {
+    canvas.drawLine(scanArea.left, scanArea.centerY(), scanArea.right, scanArea.centerY(),
+        focusLinePaint);
   }
 
   /**
    * Fills out everything but the scan area
    *
    * @param canvas The canvas to draw on
-   * @param color  String with the color in hexadecimal format (can contain alpha-channel)
-   * @param radius Corner radius
    */
-  private void drawFocusBackground(Canvas canvas, String color, int radius) {
-    Path path = new Path();
-    path.addRoundRect(scanArea, radius,
-        radius, Path.Direction.CCW);
-    canvas.clipOutPath(path);
-    canvas.drawColor(Color.parseColor(color));
+  private void drawFocusBackground(Canvas canvas) {
+    canvas.save();
+    canvas.clipOutPath(focusBackgroundPath);
+    canvas.drawColor(focusBackgroundColor);
+    canvas.restore();
   }
 
-  public void drawDebugOverlay(List<DetectedBarcode> detectedBarcodes) {
-    Canvas canvas = this.getHolder().lockCanvas();
+  /**
+   * Draws the detected barcodes as debug overlay.
+   */
+  @Override
+  public void onFrame(List<DetectedBarcode> barcodes, RectF scanArea, boolean accepted) {
+    drawDebugOverlay(barcodes);
+  }
+
+  /**
+   * Draws the bounds and center lines of the barcodes. Only the region covered by the barcodes of
+   * this and the previous call is redrawn, the scan area is copied from the cached layer.
+   *
+   * @param detectedBarcodes barcodes to draw
+   */
+  public synchronized void drawDebugOverlay(List<DetectedBarcode> detectedBarcodes) {
+    if (scanAreaLayer == null) {
+      return;
+    }
+
+    currentBarcodeArea.setEmpty();
+    for (int i = 0; i < detectedBarcodes.size(); i++) {
+      addToBarcodeArea(detectedBarcodes.get(i).getBoundingBox());
+    }
+
+    Canvas canvas = lockBarcodeArea();
     if (canvas != null) {
-      canvas.drawColor(0, PorterDuff.Mode.CLEAR);
+      for (int i = 0; i < detectedBarcodes.size(); i++) {
+        DetectedBarcode barcode = detectedBarcodes.get(i);
+        canvas.drawRect(barcode.getBoundingBox(), boundsPaint);
+        barcode.getCenterLine(false, centerLine);
+        canvas.drawLine(centerLine.left, centerLine.top, centerLine.right, centerLine.bottom,
+            centerLinePaint);
+      }
+      unlockBarcodeArea(canvas);
+    }
+  }
 
-      Paint paint = new Paint();
-      paint.setStyle(Paint.Style.STROKE);
-      paint.setStrokeWidth(5);
+  /**
+   * Draws the predicted boxes of the tracked barcodes, accepted barcodes in green.
+   */
+  private synchronized void drawTracks() {
+    if (scanAreaLayer == null || tracker == null) {
+      return;
+    }
 
-      for (DetectedBarcode barcode : detectedBarcodes) {
-        RectF outline = barcode.getBoundingBox();
-        paint.setColor(Color.parseColor("#0000FF"));
-        canvas.drawRoundRect(outline, 0, 0, paint);
+    int count = tracker.copyPredictedTracks(SystemClock.elapsedRealtime(), trackBounds,
+        trackAccepted);
+    currentBarcodeArea.setEmpty();
+    for (int i = 0; i < count; i++) {
+      addToBarcodeArea(trackBounds.get(i));
+    }
 
-        paint.setColor(Color.parseColor("#FF0000"));
-        RectF centerLine = barcode.getCenterLine();
-        canvas.drawLine(centerLine.left, centerLine.top, centerLine.right, centerLine.bottom, paint);
+    Canvas canvas = lockBarcodeArea();
+    if (canvas != null) {
+      for (int i = 0; i < count; i++) {
+        canvas.drawRect(trackBounds.get(i), trackAccepted.get(i) ? acceptedPaint : boundsPaint);
       }
+      unlockBarcodeArea(canvas);
+    }
+  }
+
+  private void addToBarcodeArea(RectF bounds) {
+    barcodeArea.set(bounds);
+    barcodeArea.inset(-DEBUG_STROKE_WIDTH, -DEBUG_STROKE_WIDTH);
+    barcodeArea.roundOut(dirty);
+    currentBarcodeArea.union(dirty);
+  }
+
+  /**
+   * Locks the region covered by the barcodes of this and the previous frame and clears it.
+   *
+   * @return the canvas to draw the barcodes on, or null if nothing has to be drawn
+   */
+  private Canvas lockBarcodeArea() {
+    if (currentBarcodeArea.isEmpty() && lastBarcodeArea.isEmpty()) {
+      // nothing was drawn and nothing has to be drawn
+      return null;
+    }
 
-      drawScanArea(canvas);
+    dirty.set(currentBarcodeArea);
+    dirty.union(lastBarcodeArea);
+    lastBarcodeArea.set(currentBarcodeArea);
+    if (!dirty.intersect(0, 0, scanAreaLayer.getWidth(), scanAreaLayer.getHeight())) {
+      return null;
+    }
 
-      getHolder().unlockCanvasAndPost(canvas);
+    Canvas canvas = getHolder().lockCanvas(dirty);
+    if (canvas != null) {
+      // the canvas is clipped to the dirty region, which lockCanvas may have enlarged, so
+      // clearing it and copying the layer afterwards covers every pixel that has to be drawn
+      canvas.drawColor(0, PorterDuff.Mode.CLEAR);
     }
+    return canvas;
+  }
+
+  private void unlockBarcodeArea(Canvas canvas) {
+    // the scan area goes on top, so the background dims barcodes outside of it as before
+    canvas.drawBitmap(scanAreaLayer, dirty, dirty, null);
+    getHolder().unlockCanvasAndPost(canvas);
   }
 }
@@ -0,0 +1,220 @@
+package com.biso.cordova.plugins.mlkit.barcode.scanner;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+import android.util.Size;
+import androidx.annotation.NonNull;
+import androidx.camera.core.AspectRatio;
+import androidx.camera.core.Camera;
+import androidx.camera.core.CameraSelector;
+import androidx.camera.core.ImageAnalysis;
+import androidx.camera.core.ImageAnalysis.Analyzer;
+import androidx.camera.core.Preview;
+import androidx.camera.core.Preview.SurfaceProvider;
+import androidx.camera.lifecycle.ProcessCameraProvider;
+import androidx.core.content.ContextCompat;
+import androidx.lifecycle.Lifecycle;
+import androidx.lifecycle.LifecycleOwner;
+import androidx.lifecycle.LifecycleRegistry;
+import com.google.common.util.concurrent.ListenableFuture;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+
+/**
+ * Process wide camera session that outlives the capture activity. The camera provider is kept
+ * initialized and the use cases are bound to this session instead of the activity, so they can
+ * stay bound for a while after a scan. A scan started within that time attaches to the running
+ * camera instead of opening it again.
+ * <p>
+ * Only one activity can be attached at a time, the last one to attach owns the session. All
+ * methods have to be called on the main thread.
+ */
+public class CameraSession implements LifecycleOwner {
+
+  private static final String SESSION = "CameraSession";
+  private static CameraSession instance;
+
+  private final LifecycleRegistry lifecycle = new LifecycleRegistry(this);
+  private final Handler handler = new Handler(Looper.getMainLooper());
+  private final Runnable close = this::close;
+  private final CameraSelector cameraSelector = new CameraSelector.Builder()
+      .requireLensFacing(CameraSelector.LENS_FACING_BACK)
+      .build();
+  private ProcessCameraProvider cameraProvider;
+  private Preview preview;
+  private ImageAnalysis imageAnalysis;
+  private Size analysisResolution;
+  private int backpressureStrategy;
+  private boolean portrait;
+  private Camera camera;
+  private Object owner;
+
+  public static synchronized CameraSession getInstance() {
+    if (instance == null) {
+      instance = new CameraSession();
+    }
+    return instance;
+  }
+
+  private CameraSession() {
+    lifecycle.setCurrentState(Lifecycle.State.CREATED);
+  }
+
+  @NonNull
+  @Override
+  public Lifecycle getLifecycle() {
+    return lifecycle;
+  }
+
+  /**
+   * Makes sure the camera provider is initialized, initializing it the first time takes a while.
+   *
+   * @param context context used to get the provider
+   * @param onReady called on the main thread once the provider is ready
+   */
+  public void open(Context context, Runnable onReady) {
+    if (cameraProvider != null) {
+      onReady.run();
+      return;
+    }
+    ListenableFuture<ProcessCameraProvider> cameraProviderFuture =
+        ProcessCameraProvider.getInstance(context.getApplicationContext());
+    cameraProviderFuture.addListener(() -> {
+      try {
+        cameraProvider = cameraProviderFuture.get();
+        onReady.run();
+      } catch (ExecutionException | InterruptedException e) {
+        // No errors need to be handled for this Future.
+        // This should never be reached.
+      }
+    }, ContextCompat.getMainExecutor(context));
+  }
+
+  /**
+   * Attaches a preview surface and an analyzer to the camera. Use cases that are still bound from
+   * an earlier scan are reused if they fit, otherwise they are replaced. Can be called again to
+   * change the analysis resolution, the preview stays bound then.
+   *
+   * @param owner                object the session belongs to until it is detached
+   * @param surfaceProvider      surface the preview is shown on
+   * @param resolution           target resolution of the analysis in display orientation, null to
+   *                             let the camera decide
+   * @param backpressureStrategy backpressure strategy of the analysis
+   * @param portrait             true if the display is in portrait orientation
+   * @param executor             executor the analyzer runs on
+   * @param analyzer             the analyzer
+   * @return the camera
+   */
+  public Camera attach(Object owner, SurfaceProvider surfaceProvider, Size resolution,
+      int backpressureStrategy, boolean portrait, Executor executor, Analyzer analyzer) {
+    handler.removeCallbacks(close);
+    this.owner = owner;
+
+    if (preview != null && this.portrait != portrait) {
+      // the use cases are set up for the orientation they were created in
+      unbind();
+    }
+    this.portrait = portrait;
+
+    if (imageAnalysis != null && (!Objects.equals(analysisResolution, resolution)
+        || this.backpressureStrategy != backpressureStrategy)) {
+      imageAnalysis.clearAnalyzer();
+      cameraProvider.unbind(imageAnalysis);
+      imageAnalysis = null;
+    }
+    if (imageAnalysis == null) {
+      imageAnalysis = buildImageAnalysis(resolution, backpressureStrategy);
+      analysisResolution = resolution;
+      this.backpressureStrategy = backpressureStrategy;
+    }
+    imageAnalysis.setAnalyzer(executor, analyzer);
+
+    boolean warm = preview != null && camera != null;
+    if (preview == null) {
+      preview = new Preview.Builder().build();
+    }
+    preview.setSurfaceProvider(surfaceProvider);
+
+    lifecycle.setCurrentState(Lifecycle.State.RESUMED);
+    camera = cameraProvider.bindToLifecycle(this, cameraSelector, preview, imageAnalysis);
+    if (warm) {
+      Log.d(SESSION, "attached to running camera");
+    }
+    return camera;
+  }
+
+  /**
+   * Stops delivering frames to the owner. The camera is kept running for keepOpen milliseconds, so
+   * the next scan can attach to it, and is closed afterwards.
+   *
+   * @param owner    the object the session was attached with, nothing happens if another object
+   *                 attached in the meantime
+   * @param keepOpen time in milliseconds the camera is kept open, 0 to close it right away
+   */
+  public void detach(Object owner, long keepOpen) {
+    if (this.owner != owner) {
+      return;
+    }
+    this.owner = null;
+    if (imageAnalysis != null) {
+      imageAnalysis.clearAnalyzer();
+    }
+    if (preview != null) {
+      preview.setSurfaceProvider(null);
+    }
+    handler.removeCallbacks(close);
+    if (keepOpen > 0) {
+      handler.postDelayed(close, keepOpen);
+    } else {
+      close();
+    }
+  }
+
+  /**
+   * Stops delivering frames to the analyzer of the owner, the preview keeps running.
+   *
+   * @param owner the object the session was attached with
+   */
+  public void clearAnalyzer(Object owner) {
+    if (this.owner == owner && imageAnalysis != null) {
+      imageAnalysis.clearAnalyzer();
+    }
+  }
+
+  private void close() {
+    if (owner != null) {
+      return;
+    }
+    unbind();
+    lifecycle.setCurrentState(Lifecycle.State.CREATED);
+  }
+
+  private void unbind() {
+    if (cameraProvider != null) {
+      if (preview != null) {
+        cameraProvider.unbind(preview);
+      }
+      if (imageAnalysis != null) {
+        imageAnalysis.clearAnalyzer();
+        cameraProvider.unbind(imageAnalysis);
+      }
+    }
+    preview = null;
+    imageAnalysis = null;
+    camera = null;
+  }
+
+  private static ImageAnalysis buildImageAnalysis(Size resolution, int backpressureStrategy) {
+    ImageAnalysis.Builder builder = new ImageAnalysis.Builder()
+        .setBackpressureStrategy(backpressureStrategy);
+    if (resolution != null) {
+      builder.setTargetResolution(resolution);
+    } else {
+      builder.setTargetAspectRatio(AspectRatio.RATIO_16_9);
+    }
+    return builder.build();
+  }
+}
@@ -6,42 +6,113 @@ import android.Manifest;
 import android.content.Context;
 import android.content.Intent;
 import android.content.pm.PackageManager;
+import android.content.res.Configuration;
 import android.hardware.camera2.CameraAccessException;
 import android.hardware.camera2.CameraManager;
 import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Size;
+import android.view.MotionEvent;
+import android.view.ScaleGestureDetector;
+import android.view.ScaleGestureDetector.SimpleOnScaleGestureListener;
 import android.widget.ImageButton;
 import androidx.annotation.NonNull;
 import androidx.appcompat.app.AppCompatActivity;
-import androidx.camera.core.AspectRatio;
 import androidx.camera.core.Camera;
-import androidx.camera.core.CameraSelector;
-import androidx.camera.core.ImageAnalysis;
-import androidx.camera.core.Preview;
 import androidx.camera.core.Preview.SurfaceProvider;
-import androidx.camera.lifecycle.ProcessCameraProvider;
 import androidx.camera.view.PreviewView;
 import androidx.constraintlayout.widget.ConstraintLayout;
-import androidx.core.content.ContextCompat;
 import androidx.lifecycle.LiveData;
 import com.google.android.gms.common.api.CommonStatusCodes;
-import com.google.common.util.concurrent.ListenableFuture;
-import java.util.concurrent.ExecutionException;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.atomic.AtomicReference;
 
 public class CaptureActivity extends AppCompatActivity {
 
-  private final ExecutorService executor = Executors.newSingleThreadExecutor();
   private static final int RC_HANDLE_CAMERA_PERM = 2;
   private Camera camera;
   private ScannerSettings settings;
   private CameraOverlay cameraOverlay;
   private static final String[] PERMISSIONS = new String[]{Manifest.permission.CAMERA};
-  private ImageAnalysis imageAnalysis;
+  private BarcodeAnalyzer barcodeAnalyzer;
+  private AnalysisPolicy analysisPolicy;
+  private SurfaceProvider surfaceProvider;
+  private ScanAreaFocus scanAreaFocus;
+  private ZoomController zoomController;
+  private boolean pinching = false;
+  private boolean cameraAttached = false;
+  private boolean cameraDetached = false;
+  private ScanMetrics metrics;
+  private final Handler handler = new Handler(Looper.getMainLooper());
+  private final Runnable batchTimeout = this::stop;
+  private static WeakReference<CaptureActivity> runningActivity = new WeakReference<>(null);
+  private static volatile BarcodesListener continuousListener;
+  private static volatile ResultStream resultStream;
+  private static final AtomicReference<Intent> result = new AtomicReference<>();
+
+  /**
+   * Sets the listener that receives results while a scan in continuous mode is running, or the
+   * progress of a scan in batch mode. In these modes the activity does not finish after a result,
+   * so results can't be returned through onActivityResult.
+   *
+   * @param listener listener for continuous results, null to remove it
+   */
+  public static void setContinuousListener(BarcodesListener listener) {
+    continuousListener = listener;
+  }
+
+  /**
+   * Takes the result of the last scan that finished successfully. The result is handed over
+   * directly instead of being parceled into the activity result.
+   *
+   * @return the result, or null if there is none
+   */
+  public static Intent takeResult() {
+    return result.getAndSet(null);
+  }
+
+  /**
+   * Sets the stream that receives results while a scan with streamed results is running.
+   *
+   * @param stream the stream, null to remove it
+   */
+  public static void setResultStream(ResultStream stream) {
+    resultStream = stream;
+  }
+
+  /**
+   * Stops the currently running scan. The activity finishes the same way it does after a result
+   * has been found in single scan mode, in batch mode with the barcodes collected so far.
+   *
+   * @return true if a running scan was stopped, false if there was none
+   */
+  public static boolean stopScan() {
+    CaptureActivity activity = runningActivity.get();
+    if (activity == null || activity.isFinishing()) {
+      return false;
+    }
+    activity.runOnUiThread(activity::stop);
+    return true;
+  }
+
+  private void stop() {
+    if (isFinishing()) {
+      return;
+    }
+    if (settings.isBatchMode() && barcodeAnalyzer != null) {
+      finishWithSuccess(barcodeAnalyzer.finishBatch());
+    } else {
+      finishWithSuccess(new Intent());
+    }
+  }
 
   @Override
   protected void onCreate(Bundle savedInstanceState) {
     super.onCreate(savedInstanceState);
+    metrics = new ScanMetrics();
+    runningActivity = new WeakReference<>(this);
+    result.set(null);
 
     CameraManager cameraManager = (CameraManager) this.getSystemService(Context.CAMERA_SERVICE);
     try {
@@ -69,8 +140,14 @@ public class CaptureActivity extends AppCompatActivity {
 
     ImageButton torchButton = findViewById(
         getResources().getIdentifier("torch_button", "id", getPackageName()));
+    // the overlay is added after the layout was inflated and covers the whole screen, it would
+    // get all touches for focus and zoom otherwise
+    torchButton.bringToFront();
 
     torchButton.setOnClickListener(v -> {
+      if (camera == null) {
+        return;
+      }
       LiveData<Integer> flashState = camera.getCameraInfo().getTorchState();
       if (flashState.getValue() != null) {
         boolean state = flashState.getValue() == 1;
@@ -82,6 +159,68 @@ public class CaptureActivity extends AppCompatActivity {
     });
   }
 
+  @Override
+  protected void onStart() {
+    super.onStart();
+    if (cameraDetached) {
+      // came back from the background, the camera was closed in onStop
+      cameraDetached = false;
+      startCamera();
+    }
+  }
+
+  @Override
+  protected void onStop() {
+    if (cameraAttached) {
+      cameraAttached = false;
+      // only a finished scan keeps the camera open for the next one, an activity in the
+      // background must not block the camera
+      CameraSession.getInstance().detach(this, isFinishing() ? settings.getKeepCameraOpen() : 0);
+      cameraDetached = !isFinishing();
+      if (scanAreaFocus != null) {
+        scanAreaFocus.setCamera(null);
+      }
+      if (zoomController != null) {
+        zoomController.setCamera(null);
+      }
+    }
+    super.onStop();
+  }
+
+  @Override
+  public void onBackPressed() {
+    if (settings != null && settings.isBatchMode()) {
+      // leaving the scanner ends the batch, the barcodes collected so far are not thrown away
+      stop();
+      return;
+    }
+    super.onBackPressed();
+  }
+
+  @Override
+  protected void onDestroy() {
+    handler.removeCallbacks(batchTimeout);
+    if (scanAreaFocus != null) {
+      scanAreaFocus.stop();
+    }
+    if (cameraOverlay != null) {
+      cameraOverlay.stopTracking();
+    }
+    if (runningActivity.get() == this) {
+      runningActivity.clear();
+    }
+    if (barcodeAnalyzer != null) {
+      if (settings.isTuningProfile()) {
+        boolean auto = AnalysisPolicy.AUTO.equalsIgnoreCase(settings.getAnalysisResolution());
+        TuningProfile.record(settings, metrics,
+            auto ? analysisPolicy.getTargetResolution() : null);
+      }
+      barcodeAnalyzer.close();
+      barcodeAnalyzer = null;
+    }
+    super.onDestroy();
+  }
+
   @Override
   public void onRequestPermissionsResult(int requestCode, @NonNull String[] permissions,
       @NonNull int[] grantResults) {
@@ -100,17 +239,35 @@ public class CaptureActivity extends AppCompatActivity {
     Intent result = new Intent();
     result.putExtra("error", errorMessage);
     setResult(CommonStatusCodes.ERROR, result);
-    if (imageAnalysis != null) {
-      imageAnalysis.clearAnalyzer();
-    }
+    CameraSession.getInstance().clearAnalyzer(this);
     finish();
   }
 
-  private void finishWithSuccess(Intent data) {
-    setResult(CommonStatusCodes.SUCCESS, data);
-    if (imageAnalysis != null) {
-      imageAnalysis.clearAnalyzer();
+  private void onBarcodesFound(Intent data) {
+    if (settings.isBatchMode()) {
+      if (data.hasExtra(BarcodeAnalyzer.BATCH_COUNT)) {
+        BarcodesListener listener = continuousListener;
+        if (listener != null) {
+          listener.onBarcodesFound(data);
+        }
+      } else {
+        runOnUiThread(() -> finishWithSuccess(data));
+      }
+    } else if (settings.isContinuousMode()) {
+      BarcodesListener listener = continuousListener;
+      if (listener != null) {
+        listener.onBarcodesFound(data);
+      }
+    } else {
+      // results arrive on the post processing thread, the activity is finished on the main thread
+      runOnUiThread(() -> finishWithSuccess(data));
     }
+  }
+
+  private void finishWithSuccess(Intent data) {
+    result.set(data);
+    setResult(CommonStatusCodes.SUCCESS);
+    CameraSession.getInstance().clearAnalyzer(this);
     finish();
   }
 
@@ -122,39 +279,139 @@ public class CaptureActivity extends AppCompatActivity {
     previewView.setScaleX(1F);
     previewView.setScaleY(1F);
 
-    ListenableFuture<ProcessCameraProvider> cameraProviderFuture = ProcessCameraProvider.getInstance(
-        this);
-    cameraProviderFuture.addListener(() -> {
-      try {
-        CaptureActivity.this.bindPreview(cameraProviderFuture.get(),
-            previewView.getSurfaceProvider());
-      } catch (ExecutionException | InterruptedException e) {
-        // No errors need to be handled for this Future.
-        // This should never be reached.
+    if (settings.isFocusOnScanArea() && scanAreaFocus == null) {
+      scanAreaFocus = new ScanAreaFocus(previewView, cameraOverlay);
+    }
+    if (ZoomController.isEnabled(settings) && zoomController == null) {
+      zoomController = new ZoomController(settings);
+    }
+    setUpGestures();
+
+    CameraSession.getInstance().open(this, () -> {
+      if (!isFinishing() && !isDestroyed()) {
+        bindPreview(previewView.getSurfaceProvider());
       }
-    }, ContextCompat.getMainExecutor(this));
+    });
   }
 
   /**
-   * Binding to camera
+   * Taps focus on the scan area, pinching zooms. The overlay lies on top of the preview, so it is
+   * the one that gets the touch events.
    */
-  private void bindPreview(ProcessCameraProvider cameraProvider, SurfaceProvider surfaceProvider) {
-    Preview preview = new Preview.Builder().build();
+  private void setUpGestures() {
+    ScaleGestureDetector scaleDetector =
+        zoomController != null && settings.isPinchToZoom() ? new ScaleGestureDetector(this,
+            new SimpleOnScaleGestureListener() {
+              @Override
+              public boolean onScaleBegin(ScaleGestureDetector detector) {
+                pinching = true;
+                return true;
+              }
 
-    CameraSelector cameraSelector = new CameraSelector.Builder().requireLensFacing(
-            CameraSelector.LENS_FACING_BACK)
-        .build();
+              @Override
+              public boolean onScale(ScaleGestureDetector detector) {
+                zoomController.zoomBy(detector.getScaleFactor());
+                return true;
+              }
+            }) : null;
+    if (scaleDetector == null && scanAreaFocus == null) {
+      return;
+    }
+    cameraOverlay.setOnTouchListener((view, event) -> {
+      // only events that are part of a tap or a pinch are reported as consumed
+      boolean handled = scaleDetector != null && scaleDetector.onTouchEvent(event)
+          && scaleDetector.isInProgress();
+      if (event.getActionMasked() == MotionEvent.ACTION_DOWN) {
+        // the rest of the gesture is only delivered if the down event is consumed
+        pinching = false;
+        handled = true;
+      } else if (event.getActionMasked() == MotionEvent.ACTION_UP && !pinching
+          && scanAreaFocus != null) {
+        scanAreaFocus.onTap();
+        view.performClick();
+        handled = true;
+      }
+      return handled;
+    });
+  }
 
-    preview.setSurfaceProvider(surfaceProvider);
+  /**
+   * Binding to camera
+   */
+  private void bindPreview(SurfaceProvider surfaceProvider) {
+    this.surfaceProvider = surfaceProvider;
+    boolean firstBind = barcodeAnalyzer == null;
+    if (firstBind) {
+      TuningProfile.Entry profile =
+          settings.isTuningProfile() ? TuningProfile.get(settings) : null;
+      analysisPolicy = new AnalysisPolicy(settings, profile);
+      analysisPolicy.setListener(resolution -> runOnUiThread(this::rebindAnalysis));
+      barcodeAnalyzer = new BarcodeAnalyzer(settings, this::onBarcodesFound, cameraOverlay,
+          analysisPolicy, metrics);
+      if (settings.isAdaptiveFormats()) {
+        barcodeAnalyzer.setAdaptiveFormats(new AdaptiveFormats(settings, profile));
+      }
+      if (settings.isTrackBarcodes()) {
+        BarcodeTracker tracker = new BarcodeTracker();
+        barcodeAnalyzer.setTracker(tracker);
+        cameraOverlay.startTracking(tracker);
+      } else if (settings.isDebugOverlay()) {
+        // the overlay draws the tracked barcodes instead while tracking
+        barcodeAnalyzer.addDetectionFeedback(cameraOverlay);
+      }
+      if (scanAreaFocus != null) {
+        barcodeAnalyzer.addDetectionFeedback(scanAreaFocus);
+      }
+      if (zoomController != null) {
+        barcodeAnalyzer.addDetectionFeedback(zoomController);
+      }
+      if (settings.isStreamResults()) {
+        barcodeAnalyzer.setResultStream(resultStream);
+      }
+      if (settings.isBatchMode() && settings.getBatchTimeout() > 0) {
+        handler.postDelayed(batchTimeout, settings.getBatchTimeout());
+      }
+    }
 
-    imageAnalysis = new ImageAnalysis.Builder()
-        .setBackpressureStrategy(ImageAnalysis.STRATEGY_KEEP_ONLY_LATEST)
-        .setTargetAspectRatio(AspectRatio.RATIO_16_9)
-        .build();
+    attachCamera();
+    if (zoomController != null && firstBind) {
+      // the camera can still be zoomed from the previous scan if it was kept open
+      zoomController.reset();
+    } else if (zoomController != null) {
+      // back from the background, the scan goes on with the zoom it had
+      zoomController.restore();
+    }
+    metrics.onCameraBound();
+  }
 
-    imageAnalysis.setAnalyzer(executor,
-        new BarcodeAnalyzer(settings, this::finishWithSuccess, cameraOverlay));
+  private void attachCamera() {
+    Size resolution = analysisPolicy.getTargetResolution();
+    boolean portrait =
+        getResources().getConfiguration().orientation == Configuration.ORIENTATION_PORTRAIT;
+    if (resolution != null && portrait) {
+      // target resolution is expected in the orientation of the display
+      resolution = new Size(resolution.getHeight(), resolution.getWidth());
+    }
+    camera = CameraSession.getInstance().attach(this, surfaceProvider, resolution,
+        analysisPolicy.getBackpressureStrategy(), portrait, ScanExecutors.getDetectionExecutor(),
+        barcodeAnalyzer);
+    cameraAttached = true;
+    if (scanAreaFocus != null) {
+      scanAreaFocus.setCamera(camera);
+    }
+    if (zoomController != null) {
+      zoomController.setCamera(camera);
+    }
+  }
 
-    camera = cameraProvider.bindToLifecycle(this, cameraSelector, imageAnalysis, preview);
+  /**
+   * Replaces the image analysis use case after the analysis policy changed the resolution, the
+   * preview stays bound.
+   */
+  private void rebindAnalysis() {
+    if (isFinishing() || !cameraAttached) {
+      return;
+    }
+    attachCamera();
   }
 }
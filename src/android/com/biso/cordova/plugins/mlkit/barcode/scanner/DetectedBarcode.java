@@ -1,54 +1,87 @@
 package com.biso.cordova.plugins.mlkit.barcode.scanner;
 
+import android.graphics.Matrix;
+import android.graphics.Rect;
 import android.graphics.RectF;
-import android.os.Parcel;
-import android.os.Parcelable;
 import android.util.Log;
-import android.util.Pair;
 import androidx.annotation.NonNull;
 import com.google.mlkit.vision.barcode.common.Barcode;
 import java.nio.charset.StandardCharsets;
+import java.util.List;
 import java.util.Objects;
-import org.json.JSONException;
 import org.json.JSONObject;
 
-public class DetectedBarcode implements Parcelable, Comparable<DetectedBarcode> {
+public class DetectedBarcode implements Comparable<DetectedBarcode> {
 
   private static final String DETECTED_BARCODE = "ANALYZER";
   private final RectF bounds;
+  private final RectF centerLine = new RectF();
   private String value;
-  private final int format;
-  private final int type;
-  private final double distanceToCenter;
-  private final boolean isPortrait;
-
-  public DetectedBarcode(@NonNull Barcode barcode, @NonNull Pair<RectF, Boolean> boundsAndOrientation, float centerX,
+  private int format;
+  private int type;
+  private double distanceToCenter;
+  private boolean isPortrait;
+
+  /**
+   * Creates an empty barcode that is filled by {@link #set(Barcode, Matrix, float, float)}. Used to
+   * reuse instances between frames.
+   */
+  public DetectedBarcode() {
+    bounds = new RectF();
+  }
+
+  /**
+   * Creates an independent copy of a barcode.
+   *
+   * @param other the barcode to copy
+   */
+  public DetectedBarcode(@NonNull DetectedBarcode other) {
+    bounds = new RectF();
+    set(other);
+  }
+
+  /**
+   * Overwrites this barcode with another one, without allocating.
+   *
+   * @param other the barcode to copy
+   * @return this barcode
+   */
+  public DetectedBarcode set(@NonNull DetectedBarcode other) {
+    value = other.value;
+    format = other.format;
+    type = other.type;
+    distanceToCenter = other.distanceToCenter;
+    bounds.set(other.bounds);
+    isPortrait = other.isPortrait;
+    return this;
+  }
+
+  /**
+   * Overwrites this barcode with a detected barcode, mapping its bounds with the matrix. Doesn't
+   * allocate anything besides what MLKit allocates for the value.
+   *
+   * @param barcode barcode found by the detector
+   * @param matrix  matrix that maps detector coordinates to overlay coordinates
+   * @param centerX x coordinate of the scan area center
+   * @param centerY y coordinate of the scan area center
+   * @return this barcode
+   */
+  public DetectedBarcode set(@NonNull Barcode barcode, @NonNull Matrix matrix, float centerX,
       float centerY) {
     format = barcode.getFormat();
     type = barcode.getValueType();
     value = barcode.getRawValue();
-    this.bounds = boundsAndOrientation.first;
-    this.isPortrait = boundsAndOrientation.second;
-
-    // rawValue returns null if string is not UTF-8 encoded.
-    // If that's the case, we will decode it as ASCII,
-    // because it's the most common encoding for barcodes.
-    // e.g. https://www.barcodefaq.com/1d/code-128/
     if (value == null) {
       value = new String(barcode.getRawBytes(), StandardCharsets.US_ASCII);
     }
 
-    distanceToCenter = Math.hypot(centerX - this.bounds.centerX(),
-        centerY - this.bounds.centerY());
-  }
+    Rect box = barcode.getBoundingBox();
+    bounds.set(box);
+    matrix.mapRect(bounds);
+    isPortrait = box.height() > box.width();
 
-  public DetectedBarcode(Parcel in) {
-    value = in.readString();
-    format = in.readInt();
-    type = in.readInt();
-    distanceToCenter = in.readDouble();
-    bounds = in.readTypedObject(RectF.CREATOR);
-    isPortrait = in.readBoolean();
+    distanceToCenter = Math.hypot(centerX - bounds.centerX(), centerY - bounds.centerY());
+    return this;
   }
 
   public boolean isInScanArea(RectF scanArea, boolean ignoreRotated) {
@@ -56,9 +89,12 @@ public class DetectedBarcode implements Parcelable, Comparable<DetectedBarcode>
       return false;
     }
 
-    RectF center = getCenterLine(ignoreRotated);
-    boolean contained = scanArea.contains(center);
-    Log.d(DETECTED_BARCODE, center.toShortString() + (contained ? " in " : " not in ") + scanArea.toShortString());
+    getCenterLine(ignoreRotated, centerLine);
+    boolean contained = scanArea.contains(centerLine);
+    if (Log.isLoggable(DETECTED_BARCODE, Log.DEBUG)) {
+      Log.d(DETECTED_BARCODE, centerLine.toShortString() + (contained ? " in " : " not in ")
+          + scanArea.toShortString());
+    }
     return contained;
   }
 
@@ -67,10 +103,23 @@ public class DetectedBarcode implements Parcelable, Comparable<DetectedBarcode>
   }
 
   public RectF getCenterLine(boolean forceScreenOrientation) {
+    RectF line = new RectF();
+    getCenterLine(forceScreenOrientation, line);
+    return line;
+  }
+
+  /**
+   * Writes the center line of the barcode into out, without allocating a new rectangle.
+   *
+   * @param forceScreenOrientation use the screen orientation instead of the barcode orientation
+   * @param out                    rectangle the center line is written to
+   */
+  public void getCenterLine(boolean forceScreenOrientation, RectF out) {
     if (!forceScreenOrientation && isPortrait) {
-      return new RectF(bounds.centerX(), bounds.top, bounds.centerX(), bounds.bottom);
+      out.set(bounds.centerX(), bounds.top, bounds.centerX(), bounds.bottom);
+    } else {
+      out.set(bounds.left, bounds.centerY(), bounds.right, bounds.centerY());
     }
-    return new RectF(bounds.left, bounds.centerY(), bounds.right, bounds.centerY());
   }
 
   public RectF getBoundingBox() {
@@ -102,9 +151,9 @@ public class DetectedBarcode implements Parcelable, Comparable<DetectedBarcode>
       return false;
     }
 
+    // compared as primitives, boxing the format would allocate for most formats on every call
     DetectedBarcode other = (DetectedBarcode) o;
-    return Objects.equals(getValue(), other.getValue()) && Objects.equals(getType(),
-        other.getType()) && Objects.equals(getFormat(), other.getFormat());
+    return type == other.type && format == other.format && Objects.equals(value, other.value);
   }
 
   @Override
@@ -128,37 +177,35 @@ public class DetectedBarcode implements Parcelable, Comparable<DetectedBarcode>
     return Double.compare(distanceToCenter, o.getDistanceToCenter());
   }
 
-  @Override
-  public int describeContents() {
-    return hashCode();
-  }
-
-  @Override
-  public void writeToParcel(Parcel out, int i) {
-    out.writeString(value);
-    out.writeInt(format);
-    out.writeInt(type);
-    out.writeDouble(distanceToCenter);
-    out.writeTypedObject(bounds, Parcelable.PARCELABLE_WRITE_RETURN_VALUE);
-    out.writeBoolean(isPortrait);
-  }
-
-  public JSONObject getAsJson() throws JSONException {
-    JSONObject result = new JSONObject();
-      result.put("value", getValue());
-      result.put("format", getFormat());
-      result.put("type", getType());
-      result.put("distanceToCenter", getDistanceToCenter());
-    return result;
-  }
-
-  public static final Parcelable.Creator<DetectedBarcode> CREATOR = new Parcelable.Creator<DetectedBarcode>() {
-    public DetectedBarcode createFromParcel(Parcel in) {
-      return new DetectedBarcode(in);
+  /**
+   * Writes the barcode as json object with its value, format, type and distance to the center,
+   * without building a JSONObject first.
+   *
+   * @param out builder the json is appended to
+   * @return out
+   */
+  public StringBuilder appendJson(StringBuilder out) {
+    return out.append("{\"value\":").append(JSONObject.quote(value))
+        .append(",\"format\":").append(format)
+        .append(",\"type\":").append(type)
+        .append(",\"distanceToCenter\":").append(distanceToCenter)
+        .append('}');
+  }
+
+  /**
+   * Serializes barcodes into a json array in one go.
+   *
+   * @param barcodes the barcodes
+   * @return the barcodes as json array string
+   */
+  public static String toJson(List<DetectedBarcode> barcodes) {
+    StringBuilder out = new StringBuilder(barcodes.size() * 96 + 2).append('[');
+    for (int i = 0; i < barcodes.size(); i++) {
+      if (i > 0) {
+        out.append(',');
+      }
+      barcodes.get(i).appendJson(out);
     }
-
-    public DetectedBarcode[] newArray(int size) {
-      return new DetectedBarcode[size];
-    }
-  };
+    return out.append(']').toString();
+  }
 }
@@ -0,0 +1,19 @@
+package com.biso.cordova.plugins.mlkit.barcode.scanner;
+
+import android.graphics.RectF;
+import java.util.List;
+
+/**
+ * Gets told about every frame the analyzer has detected, e.g. to steer focus and zoom or to draw
+ * the detected barcodes. Called on the post processing thread, implementations must not block
+ * and must not keep the barcodes, they are reused for the next frames.
+ */
+public interface DetectionFeedback {
+
+  /**
+   * @param barcodes barcodes detected in the frame, in overlay coordinates
+   * @param scanArea the scan area
+   * @param accepted true if the barcodes were accepted as result
+   */
+  void onFrame(List<DetectedBarcode> barcodes, RectF scanArea, boolean accepted);
+}
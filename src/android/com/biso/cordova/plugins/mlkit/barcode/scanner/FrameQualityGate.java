@@ -0,0 +1,178 @@
+package com.biso.cordova.plugins.mlkit.barcode.scanner;
+
+import static com.biso.cordova.plugins.mlkit.barcode.scanner.Utils.setTranslationMatrix;
+import static com.biso.cordova.plugins.mlkit.barcode.scanner.Utils.uprightToBuffer;
+
+import android.graphics.ImageFormat;
+import android.graphics.Matrix;
+import android.graphics.RectF;
+import androidx.camera.core.ImageProxy;
+import androidx.camera.core.ImageProxy.PlaneProxy;
+import java.nio.ByteBuffer;
+
+/**
+ * Checks camera frames for blur, darkness and motion before they are passed to the detector, which
+ * is by far the most expensive part of analyzing a frame. Only the luminance plane under the scan
+ * area is looked at, on a grid of at most {@value #GRID_SIZE} x {@value #GRID_SIZE} pixels:
+ * <ul>
+ *   <li>sharpness: mean absolute laplacian of the sampled pixels</li>
+ *   <li>luminance: mean brightness of the sampled pixels, 0 to 255</li>
+ *   <li>difference: mean absolute brightness change of the sampled pixels since the last frame</li>
+ * </ul>
+ * A threshold of 0 disables the check. So a scene that never passes the checks, e.g. a barcode
+ * without much contrast, doesn't stop the scanner completely, every {@value #MAX_REJECTED}th frame
+ * in a row is let through anyway.
+ */
+public class FrameQualityGate {
+
+  private static final int GRID_SIZE = 64;
+  private static final int MAX_REJECTED = 10;
+
+  private final double minSharpness;
+  private final double minLuminance;
+  private final double maxDifference;
+  private final RectF source = new RectF();
+  private final Matrix imageToOverlay = new Matrix();
+  private final Matrix overlayToImage = new Matrix();
+  private final RectF region = new RectF();
+  private final RectF bufferRegion = new RectF();
+  private final byte[] samples = new byte[GRID_SIZE * GRID_SIZE];
+  private int sampleCount = 0;
+  private int sampleLeft = -1;
+  private int sampleTop = -1;
+  private int rejected = 0;
+  private double sharpness;
+  private double luminance;
+  private double difference;
+
+  public FrameQualityGate(ScannerSettings settings) {
+    this.minSharpness = settings.getMinFrameSharpness();
+    this.minLuminance = settings.getMinFrameLuminance();
+    this.maxDifference = settings.getMaxFrameDifference();
+  }
+
+  /**
+   * @param settings scanner settings
+   * @return true if any of the checks is enabled
+   */
+  public static boolean isEnabled(ScannerSettings settings) {
+    return settings.getMinFrameSharpness() > 0 || settings.getMinFrameLuminance() > 0
+        || settings.getMaxFrameDifference() > 0;
+  }
+
+  /**
+   * Measures the frame and decides if it is good enough to be detected. Doesn't close the frame.
+   *
+   * @param imageProxy  camera frame in YUV_420_888 format, other formats are always accepted
+   * @param surfaceArea the area of the overlay the frame is shown in, may be null
+   * @param scanArea    the scan area in overlay coordinates, the whole frame is measured if null
+   * @return true if the frame should be passed to the detector
+   */
+  public boolean accept(ImageProxy imageProxy, RectF surfaceArea, RectF scanArea) {
+    if (imageProxy.getFormat() != ImageFormat.YUV_420_888) {
+      return true;
+    }
+    int width = imageProxy.getWidth();
+    int height = imageProxy.getHeight();
+    mapScanArea(imageProxy.getImageInfo().getRotationDegrees(), width, height, surfaceArea,
+        scanArea);
+
+    // one pixel is kept free on every side for the neighbours of the laplacian
+    int left = Math.max(1, (int) bufferRegion.left);
+    int top = Math.max(1, (int) bufferRegion.top);
+    int right = Math.min(width - 1, (int) Math.ceil(bufferRegion.right));
+    int bottom = Math.min(height - 1, (int) Math.ceil(bufferRegion.bottom));
+    if (right <= left || bottom <= top) {
+      return true;
+    }
+    measure(imageProxy.getPlanes()[0], left, top, right, bottom);
+
+    boolean good = (minSharpness <= 0 || sharpness >= minSharpness)
+        && (minLuminance <= 0 || luminance >= minLuminance)
+        && (maxDifference <= 0 || difference < 0 || difference <= maxDifference);
+    if (good || rejected >= MAX_REJECTED - 1) {
+      rejected = 0;
+      return true;
+    }
+    rejected++;
+    return false;
+  }
+
+  /**
+   * @return sharpness of the last measured frame
+   */
+  public double getSharpness() {
+    return sharpness;
+  }
+
+  /**
+   * @return mean luminance of the last measured frame
+   */
+  public double getLuminance() {
+    return luminance;
+  }
+
+  /**
+   * @return difference of the last measured frame to the frame before, -1 if they can't be
+   * compared
+   */
+  public double getDifference() {
+    return difference;
+  }
+
+  private void mapScanArea(int rotation, int width, int height, RectF surfaceArea,
+      RectF scanArea) {
+    boolean swapped = rotation == 90 || rotation == 270;
+    source.set(0, 0, swapped ? height : width, swapped ? width : height);
+    if (surfaceArea == null || scanArea == null) {
+      region.set(source);
+    } else {
+      setTranslationMatrix(source, surfaceArea, imageToOverlay);
+      imageToOverlay.invert(overlayToImage);
+      region.set(scanArea);
+      overlayToImage.mapRect(region);
+    }
+    uprightToBuffer(region, rotation, width, height, bufferRegion);
+  }
+
+  private void measure(PlaneProxy yPlane, int left, int top, int right, int bottom) {
+    ByteBuffer buffer = yPlane.getBuffer();
+    int rowStride = yPlane.getRowStride();
+    int pixelStride = yPlane.getPixelStride();
+    int stepX = Math.max(1, (right - left + GRID_SIZE - 1) / GRID_SIZE);
+    int stepY = Math.max(1, (bottom - top + GRID_SIZE - 1) / GRID_SIZE);
+    // the previous samples can only be compared if they were taken at the same positions
+    boolean comparable = left == sampleLeft && top == sampleTop;
+
+    long laplacianSum = 0;
+    long luminanceSum = 0;
+    long differenceSum = 0;
+    int count = 0;
+    for (int y = top; y < bottom && count < samples.length; y += stepY) {
+      int row = y * rowStride;
+      for (int x = left; x < right && count < samples.length; x += stepX) {
+        int index = row + x * pixelStride;
+        int center = buffer.get(index) & 0xFF;
+        int laplacian = (buffer.get(index - pixelStride) & 0xFF)
+            + (buffer.get(index + pixelStride) & 0xFF)
+            + (buffer.get(index - rowStride) & 0xFF)
+            + (buffer.get(index + rowStride) & 0xFF)
+            - 4 * center;
+        laplacianSum += Math.abs(laplacian);
+        luminanceSum += center;
+        if (comparable) {
+          differenceSum += Math.abs(center - (samples[count] & 0xFF));
+        }
+        samples[count++] = (byte) center;
+      }
+    }
+
+    comparable &= count == sampleCount;
+    sampleCount = count;
+    sampleLeft = left;
+    sampleTop = top;
+    sharpness = count == 0 ? 0 : (double) laplacianSum / count;
+    luminance = count == 0 ? 0 : (double) luminanceSum / count;
+    difference = comparable && count > 0 ? (double) differenceSum / count : -1;
+  }
+}
@@ -1,6 +1,9 @@
 package com.biso.cordova.plugins.mlkit.barcode.scanner;
 
 import static com.biso.cordova.plugins.mlkit.barcode.scanner.BarcodeAnalyzer.BARCODES;
+import static com.biso.cordova.plugins.mlkit.barcode.scanner.BarcodeAnalyzer.BATCH_COUNT;
+import static com.biso.cordova.plugins.mlkit.barcode.scanner.BarcodeAnalyzer.RESULT;
+import static com.biso.cordova.plugins.mlkit.barcode.scanner.ScanMetrics.METRICS;
 
 import android.content.Context;
 import android.content.Intent;
@@ -12,9 +15,9 @@ import android.os.VibrationEffect;
 import android.os.Vibrator;
 import android.os.VibratorManager;
 import android.util.Log;
+import com.biso.cordova.plugins.mlkit.barcode.scanner.ScannerSettings.Settings;
 import com.google.android.gms.common.api.CommonStatusCodes;
 import java.io.IOException;
-import java.util.ArrayList;
 import org.apache.cordova.CallbackContext;
 import org.apache.cordova.CordovaInterface;
 import org.apache.cordova.CordovaPlugin;
@@ -27,8 +30,11 @@ import org.json.JSONObject;
 public class MLKitBarcodeScanner extends CordovaPlugin {
 
   public static final String SETTINGS = "settings";
+  private static final String IDLE_TIMEOUT = "idleTimeout";
   private static final int RC_BARCODE_CAPTURE = 9001;
+  private static final String EVENTS = "events";
   private CallbackContext callbackContext;
+  private ResultStream resultStream;
   private ScannerSettings scannerSettings;
   private MediaPlayer mediaPlayer;
   private Vibrator vibrator;
@@ -38,6 +44,7 @@ public class MLKitBarcodeScanner extends CordovaPlugin {
     super.initialize(cordova, webView);
 
     Context context = cordova.getContext();
+    cordova.getThreadPool().execute(() -> TuningProfile.load(context));
 
     VibratorManager vibratorManager = (VibratorManager) context.getSystemService(
         Context.VIBRATOR_MANAGER_SERVICE);
@@ -61,9 +68,9 @@ public class MLKitBarcodeScanner extends CordovaPlugin {
 
   @Override
   public boolean execute(String action, JSONArray args, CallbackContext callbackContext) {
-    this.callbackContext = callbackContext;
-
     if (action.equals("startScan")) {
+      this.callbackContext = callbackContext;
+
       class OneShotTask implements Runnable {
 
         private final Context context;
@@ -83,8 +90,43 @@ public class MLKitBarcodeScanner extends CordovaPlugin {
           }
         }
       }
-      Thread t = new Thread(new OneShotTask(cordova.getContext(), args));
-      t.start();
+      cordova.getThreadPool().execute(new OneShotTask(cordova.getContext(), args));
+      return true;
+    } else if (action.equals("stopScan")) {
+      if (CaptureActivity.stopScan()) {
+        callbackContext.success();
+      } else {
+        callbackContext.error("NO_SCAN_RUNNING");
+      }
+      return true;
+    } else if (action.equals("warmUp")) {
+      JSONObject config = args.optJSONObject(0);
+      int barcodeFormats = 0;
+      if (config != null) {
+        barcodeFormats = config.optInt(Settings.BARCODE_FORMATS.value(), barcodeFormats);
+        if (config.has(IDLE_TIMEOUT)) {
+          BarcodeScannerPool.setIdleTimeout(
+              config.optLong(IDLE_TIMEOUT, BarcodeScannerPool.DEFAULT_IDLE_TIMEOUT));
+        }
+      }
+      BarcodeScannerPool.warmUp(barcodeFormats, callbackContext::success);
+      return true;
+    } else if (action.equals("decodeImages")) {
+      JSONArray images = args.optJSONArray(0);
+      if (images == null) {
+        callbackContext.error("JSON_EXCEPTION");
+        return true;
+      }
+      JSONObject config = args.optJSONObject(1);
+      int barcodeFormats = 0;
+      int maxImageSize = StillImageDecoder.DEFAULT_MAX_IMAGE_SIZE;
+      if (config != null) {
+        barcodeFormats = config.optInt(Settings.BARCODE_FORMATS.value(), barcodeFormats);
+        maxImageSize = config.optInt(StillImageDecoder.MAX_IMAGE_SIZE, maxImageSize);
+      }
+      StillImageDecoder decoder = new StillImageDecoder(cordova.getContext(), barcodeFormats,
+          maxImageSize, createImageListener(callbackContext));
+      cordova.getThreadPool().execute(() -> decoder.decode(images));
       return true;
     }
     return false;
@@ -95,9 +137,20 @@ public class MLKitBarcodeScanner extends CordovaPlugin {
     Intent intent = new Intent(context, CaptureActivity.class);
 
     scannerSettings = new ScannerSettings(config);
+    ScanExecutors.setThreadPriority(scannerSettings.getAnalysisThreadPriority());
 
     intent.putExtra(SETTINGS, scannerSettings);
 
+    if (scannerSettings.isBatchMode()) {
+      CaptureActivity.setContinuousListener(this::sendBatchProgress);
+    } else if (scannerSettings.isStreamResults()) {
+      resultStream = new ResultStream(this::sendEvents, scannerSettings.getStreamQueueSize(),
+          scannerSettings.getStreamMaxEventRate(), scannerSettings.isStreamIncludeBounds());
+      CaptureActivity.setResultStream(resultStream);
+    } else if (scannerSettings.isContinuousMode()) {
+      CaptureActivity.setContinuousListener(data -> sendBarcodes(data, true));
+    }
+
     this.cordova.setActivityResultCallback(this);
     this.cordova.startActivityForResult(this, intent, RC_BARCODE_CAPTURE);
   }
@@ -107,30 +160,28 @@ public class MLKitBarcodeScanner extends CordovaPlugin {
     super.onActivityResult(requestCode, resultCode, data);
 
     if (requestCode == RC_BARCODE_CAPTURE) {
-      if (resultCode == CommonStatusCodes.SUCCESS) {
-        if (data != null) {
-          try {
-            ArrayList<DetectedBarcode> barcodes = data.getParcelableArrayListExtra(BARCODES);
-            JSONArray resultBarcodes = new JSONArray();
-            for (DetectedBarcode barcode : barcodes) {
-              Log.d("MLKitBarcodeScanner", "Barcode read: " + barcode);
-              resultBarcodes.put(barcode.getAsJson());
-            }
-            callbackContext.sendPluginResult(new PluginResult(PluginResult.Status.OK, resultBarcodes));
-          } catch (JSONException e) {
-            callbackContext.sendPluginResult(
-                new PluginResult(PluginResult.Status.ERROR, "JSON_EXCEPTION"));
-            return;
-          }
-
-          if (scannerSettings.isBeepOnSuccess()) {
-            mediaPlayer.start();
-          }
+      boolean batchMode = scannerSettings != null && scannerSettings.isBatchMode();
+      boolean continuousMode = !batchMode && scannerSettings != null
+          && (scannerSettings.isStreamResults() || scannerSettings.isContinuousMode());
+      if (batchMode || continuousMode) {
+        CaptureActivity.setContinuousListener(null);
+      }
+      if (resultStream != null) {
+        // events still queued are sent before the end of the session
+        CaptureActivity.setResultStream(null);
+        resultStream.close();
+        resultStream = null;
+      }
 
-          if (scannerSettings.isVibrateOnSuccess()) {
-            int duration = 200;
-            vibrator.vibrate(
-                VibrationEffect.createOneShot(duration, VibrationEffect.DEFAULT_AMPLITUDE));
+      if (resultCode == CommonStatusCodes.SUCCESS) {
+        if (continuousMode) {
+          // results were already sent while scanning, an empty list marks the end of the session
+          callbackContext.sendPluginResult(new PluginResult(PluginResult.Status.OK, new JSONArray()));
+        } else {
+          // the result is handed over in process, it doesn't have to go through the intent
+          Intent result = CaptureActivity.takeResult();
+          if (result != null) {
+            sendBarcodes(result, false);
           }
         }
       } else {
@@ -140,6 +191,115 @@ public class MLKitBarcodeScanner extends CordovaPlugin {
     }
   }
 
+  /**
+   * Sends the barcodes contained in data to the webview and gives feedback to the user if
+   * configured. The barcodes are already serialized to json by the analyzer, so they are passed
+   * through as they are instead of being parsed and serialized again.
+   *
+   * @param data         intent with the barcodes as json string extra
+   * @param keepCallback true if more results will be sent with the same callback
+   */
+  private void sendBarcodes(Intent data, boolean keepCallback) {
+    String barcodes = getBarcodesAsJson(data);
+    if (Log.isLoggable("MLKitBarcodeScanner", Log.DEBUG)) {
+      Log.d("MLKitBarcodeScanner", "Barcodes read: " + barcodes);
+    }
+    String metrics = data.getStringExtra(METRICS);
+    if (metrics != null) {
+      barcodes = "{\"" + BARCODES + "\":" + barcodes + ",\"" + METRICS + "\":" + metrics + "}";
+    }
+    PluginResult result = new PluginResult(PluginResult.Status.OK, barcodes);
+    result.setKeepCallback(keepCallback);
+    callbackContext.sendPluginResult(result);
+
+    giveFeedback();
+  }
+
+  /**
+   * Sends the barcodes newly added to a batch to the webview, the callback is kept for the final
+   * result.
+   *
+   * @param data intent with the new barcodes and the number of barcodes in the batch
+   */
+  private void sendBatchProgress(Intent data) {
+    String progress = "{\"progress\":" + getBarcodesAsJson(data) + ",\"count\":"
+        + data.getIntExtra(BATCH_COUNT, 0) + "}";
+    PluginResult result = new PluginResult(PluginResult.Status.OK, progress);
+    result.setKeepCallback(true);
+    callbackContext.sendPluginResult(result);
+
+    giveFeedback();
+  }
+
+  /**
+   * Sends a batch of streamed result events to the webview, the callback is kept for further
+   * events.
+   *
+   * @param events the events
+   */
+  private void sendEvents(String events) {
+    PluginResult result = new PluginResult(PluginResult.Status.OK,
+        "{\"" + EVENTS + "\":" + events + "}");
+    result.setKeepCallback(true);
+    callbackContext.sendPluginResult(result);
+  }
+
+  /**
+   * Creates the listener that sends the result of every decoded image to the webview as soon as it
+   * is done, the callback is kept until all images are done.
+   *
+   * @param callbackContext callback of the decodeImages call
+   * @return the listener
+   */
+  private static StillImageDecoder.Listener createImageListener(CallbackContext callbackContext) {
+    return new StillImageDecoder.Listener() {
+      @Override
+      public void onImageDecoded(int index, String barcodes) {
+        send("{\"image\":" + index + ",\"" + BARCODES + "\":" + barcodes + "}");
+      }
+
+      @Override
+      public void onImageFailed(int index, String error) {
+        send("{\"image\":" + index + ",\"error\":" + JSONObject.quote(error) + "}");
+      }
+
+      @Override
+      public void onDone(int count) {
+        callbackContext.sendPluginResult(
+            new PluginResult(PluginResult.Status.OK, "{\"done\":" + count + "}"));
+      }
+
+      private void send(String message) {
+        PluginResult result = new PluginResult(PluginResult.Status.OK, message);
+        result.setKeepCallback(true);
+        callbackContext.sendPluginResult(result);
+      }
+    };
+  }
+
+  private static String getBarcodesAsJson(Intent data) {
+    String barcodes = data.getStringExtra(RESULT);
+    return barcodes == null ? "[]" : barcodes;
+  }
+
+  private void giveFeedback() {
+    if (scannerSettings.isBeepOnSuccess()) {
+      mediaPlayer.start();
+    }
+
+    if (scannerSettings.isVibrateOnSuccess()) {
+      int duration = 200;
+      vibrator.vibrate(
+          VibrationEffect.createOneShot(duration, VibrationEffect.DEFAULT_AMPLITUDE));
+    }
+  }
+
+  @Override
+  public void onDestroy() {
+    ScanExecutors.shutdown();
+    super.onDestroy();
+  }
+
   @Override
   public void onRestoreStateForActivityResult(Bundle state, CallbackContext callbackContext) {
     this.callbackContext = callbackContext;
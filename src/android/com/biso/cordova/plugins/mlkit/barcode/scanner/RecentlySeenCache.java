@@ -0,0 +1,84 @@
+package com.biso.cordova.plugins.mlkit.barcode.scanner;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Process wide cache of the barcodes that were returned recently, so a label that is scanned again
+ * can be skipped. Barcodes are compared with equals, so only value, format and type matter. The
+ * cache holds a limited number of barcodes, the least recently seen ones are dropped first.
+ */
+public class RecentlySeenCache {
+
+  public static final String SKIP = "skip";
+  public static final int DEFAULT_MAX_SIZE = 100;
+  private static int maxSize = DEFAULT_MAX_SIZE;
+  private static final LinkedHashMap<DetectedBarcode, Long> seen =
+      new LinkedHashMap<DetectedBarcode, Long>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<DetectedBarcode, Long> eldest) {
+          return size() > maxSize;
+        }
+      };
+
+  /**
+   * Checks if a barcode was returned within the time to live. Doesn't allocate, so it can be called
+   * for every frame.
+   *
+   * @param barcode   the barcode
+   * @param timestamp current time in milliseconds
+   * @param ttl       time to live in milliseconds
+   * @return true if the barcode was returned recently
+   */
+  public static synchronized boolean isRecent(DetectedBarcode barcode, long timestamp, long ttl) {
+    Long lastSeen = seen.get(barcode);
+    if (lastSeen == null) {
+      return false;
+    }
+    if (timestamp - lastSeen > ttl) {
+      seen.remove(barcode);
+      return false;
+    }
+    return true;
+  }
+
+  /**
+   * Remembers barcodes that have been returned.
+   *
+   * @param barcodes  the barcodes, they are copied
+   * @param timestamp current time in milliseconds
+   */
+  public static synchronized void add(List<DetectedBarcode> barcodes, long timestamp) {
+    for (int i = 0; i < barcodes.size(); i++) {
+      DetectedBarcode barcode = barcodes.get(i);
+      // the key is kept, so the barcode itself can't be used if it comes from a pool
+      seen.remove(barcode);
+      seen.put(new DetectedBarcode(barcode), timestamp);
+    }
+  }
+
+  /**
+   * Sets how many barcodes are kept, the least recently seen ones are dropped when there are too
+   * many.
+   *
+   * @param size maximum number of barcodes
+   */
+  public static synchronized void setMaxSize(int size) {
+    maxSize = Math.max(1, size);
+    while (seen.size() > maxSize) {
+      seen.remove(seen.keySet().iterator().next());
+    }
+  }
+
+  /**
+   * Forgets all barcodes.
+   */
+  public static synchronized void clear() {
+    seen.clear();
+  }
+
+  private RecentlySeenCache() {
+    throw new IllegalStateException("Utility class");
+  }
+}
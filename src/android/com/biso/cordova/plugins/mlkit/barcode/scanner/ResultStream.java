@@ -0,0 +1,167 @@
+package com.biso.cordova.plugins.mlkit.barcode.scanner;
+
+import android.graphics.RectF;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.util.Log;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Delivers results to the webview while a scan is running. Results are queued and sent in batches
+ * at a limited rate, so a busy bridge isn't flooded with a message for every camera frame.
+ * <p>
+ * The queue is bounded, once it is full the oldest events are dropped. An event for a barcode that
+ * is still queued replaces the queued one, so only the latest position of a barcode is sent.
+ */
+public class ResultStream {
+
+  private static final String STREAM = "ResultStream";
+
+  private final Sink sink;
+  private final int queueSize;
+  private final long minInterval;
+  private final boolean includeBounds;
+  private final Handler handler = new Handler(Looper.getMainLooper());
+  private final Runnable flush = this::flush;
+  private final ArrayList<Event> queue = new ArrayList<>();
+  private long lastFlush = 0;
+  private boolean flushScheduled = false;
+  private boolean closed = false;
+
+  /**
+   * @param sink          receives the batches of events, always called on the main thread
+   * @param queueSize     maximum number of queued events
+   * @param maxEventRate  maximum number of batches per second, 0 for no limit
+   * @param includeBounds true if the bounds of the barcodes are added to the events
+   */
+  public ResultStream(Sink sink, int queueSize, int maxEventRate, boolean includeBounds) {
+    this.sink = sink;
+    this.queueSize = Math.max(1, queueSize);
+    this.minInterval = maxEventRate > 0 ? 1000L / maxEventRate : 0;
+    this.includeBounds = includeBounds;
+  }
+
+  /**
+   * Queues events for the barcodes. Can be called from any thread, the barcodes are copied.
+   *
+   * @param barcodes  barcodes to send
+   * @param timestamp time the barcodes were detected at in milliseconds since the epoch
+   */
+  public synchronized void offer(List<DetectedBarcode> barcodes, long timestamp) {
+    if (closed) {
+      return;
+    }
+    for (int i = 0; i < barcodes.size(); i++) {
+      DetectedBarcode barcode = barcodes.get(i);
+      int queued = indexOf(barcode);
+      if (queued >= 0) {
+        queue.remove(queued);
+      } else if (queue.size() >= queueSize) {
+        if (Log.isLoggable(STREAM, Log.DEBUG)) {
+          Log.d(STREAM, "queue full, dropping " + queue.get(0).barcode);
+        }
+        queue.remove(0);
+      }
+      queue.add(new Event(new DetectedBarcode(barcode), timestamp));
+    }
+    scheduleFlush();
+  }
+
+  /**
+   * Sends everything that is still queued and stops accepting events.
+   */
+  public void close() {
+    synchronized (this) {
+      closed = true;
+      handler.removeCallbacks(flush);
+      flushScheduled = false;
+    }
+    if (Looper.myLooper() == Looper.getMainLooper()) {
+      send();
+    } else {
+      handler.post(this::send);
+    }
+  }
+
+  private int indexOf(DetectedBarcode barcode) {
+    for (int i = 0; i < queue.size(); i++) {
+      if (queue.get(i).barcode.equals(barcode)) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  private void scheduleFlush() {
+    if (flushScheduled || queue.isEmpty()) {
+      return;
+    }
+    flushScheduled = true;
+    long delay = Math.max(0, lastFlush + minInterval - SystemClock.elapsedRealtime());
+    handler.postDelayed(flush, delay);
+  }
+
+  private void flush() {
+    synchronized (this) {
+      flushScheduled = false;
+      lastFlush = SystemClock.elapsedRealtime();
+    }
+    send();
+  }
+
+  private void send() {
+    ArrayList<Event> events;
+    synchronized (this) {
+      if (queue.isEmpty()) {
+        return;
+      }
+      events = new ArrayList<>(queue);
+      queue.clear();
+    }
+    StringBuilder json = new StringBuilder(events.size() * 128 + 2).append('[');
+    for (int i = 0; i < events.size(); i++) {
+      if (i > 0) {
+        json.append(',');
+      }
+      events.get(i).appendJson(json, includeBounds);
+    }
+    sink.send(json.append(']').toString());
+  }
+
+  private static class Event {
+
+    private final DetectedBarcode barcode;
+    private final long timestamp;
+
+    private Event(DetectedBarcode barcode, long timestamp) {
+      this.barcode = barcode;
+      this.timestamp = timestamp;
+    }
+
+    private void appendJson(StringBuilder out, boolean includeBounds) {
+      barcode.appendJson(out);
+      // the event is the barcode with more fields, they go in front of its closing brace
+      out.setLength(out.length() - 1);
+      out.append(",\"timestamp\":").append(timestamp);
+      if (includeBounds) {
+        RectF bounds = barcode.getBoundingBox();
+        out.append(",\"bounds\":{\"left\":").append(bounds.left)
+            .append(",\"top\":").append(bounds.top)
+            .append(",\"right\":").append(bounds.right)
+            .append(",\"bottom\":").append(bounds.bottom)
+            .append('}');
+      }
+      out.append('}');
+    }
+  }
+
+  public interface Sink {
+
+    /**
+     * @param events the events as json array
+     */
+    void send(String events);
+  }
+}
@@ -0,0 +1,153 @@
+package com.biso.cordova.plugins.mlkit.barcode.scanner;
+
+import static com.biso.cordova.plugins.mlkit.barcode.scanner.Utils.bufferToUpright;
+import static com.biso.cordova.plugins.mlkit.barcode.scanner.Utils.setTranslationMatrix;
+import static com.biso.cordova.plugins.mlkit.barcode.scanner.Utils.uprightToBuffer;
+
+import android.graphics.ImageFormat;
+import android.graphics.Matrix;
+import android.graphics.Rect;
+import android.graphics.RectF;
+import androidx.camera.core.ImageProxy;
+import androidx.camera.core.ImageProxy.PlaneProxy;
+import com.google.mlkit.vision.common.InputImage;
+import java.nio.ByteBuffer;
+
+/**
+ * Copies the part of a camera frame that lies under the scan area into an NV21 buffer, so the
+ * detector only has to look at the pixels that can contain a valid result.
+ * <p>
+ * The copy is kept until the detector is done with it, only one cropped frame can be in flight
+ * at a time.
+ */
+public class ScanAreaCropper {
+
+  private final double margin;
+  private final RectF source = new RectF();
+  private final Matrix imageToOverlay = new Matrix();
+  private final Matrix overlayToImage = new Matrix();
+  private final RectF cropArea = new RectF();
+  private final RectF bufferArea = new RectF();
+  private final Rect bufferCrop = new Rect();
+  private final Rect uprightCrop = new Rect();
+  private byte[] nv21 = new byte[0];
+  private volatile boolean inUse = false;
+
+  /**
+   * @param margin margin added around the scan area on every side, relative to its size
+   */
+  public ScanAreaCropper(double margin) {
+    this.margin = margin;
+  }
+
+  /**
+   * Crops the frame to the scan area.
+   *
+   * @param imageProxy  camera frame in YUV_420_888 format
+   * @param surfaceArea the area of the overlay the frame is shown in
+   * @param scanArea    the scan area in overlay coordinates
+   * @return an image containing only the scan area, or null if the frame can't be cropped right
+   * now
+   */
+  public InputImage crop(ImageProxy imageProxy, RectF surfaceArea, RectF scanArea) {
+    if (inUse || imageProxy.getFormat() != ImageFormat.YUV_420_888) {
+      return null;
+    }
+
+    int rotation = imageProxy.getImageInfo().getRotationDegrees();
+    int width = imageProxy.getWidth();
+    int height = imageProxy.getHeight();
+    boolean swapped = rotation == 90 || rotation == 270;
+
+    source.set(0, 0, swapped ? height : width, swapped ? width : height);
+    setTranslationMatrix(source, surfaceArea, imageToOverlay);
+    imageToOverlay.invert(overlayToImage);
+
+    cropArea.set(scanArea);
+    cropArea.inset((float) (-scanArea.width() * margin), (float) (-scanArea.height() * margin));
+    overlayToImage.mapRect(cropArea);
+    uprightToBuffer(cropArea, rotation, width, height, bufferArea);
+
+    // chroma is subsampled by 2 in both directions, so the crop has to start and end on even
+    // coordinates
+    int left = Math.max(0, (int) bufferArea.left) & ~1;
+    int top = Math.max(0, (int) bufferArea.top) & ~1;
+    int right = Math.min(width, (int) Math.ceil(bufferArea.right)) & ~1;
+    int bottom = Math.min(height, (int) Math.ceil(bufferArea.bottom)) & ~1;
+    if (right <= left || bottom <= top) {
+      return null;
+    }
+    bufferCrop.set(left, top, right, bottom);
+    bufferToUpright(bufferCrop, rotation, width, height, uprightCrop);
+
+    int cropWidth = right - left;
+    int cropHeight = bottom - top;
+    int size = cropWidth * cropHeight * 3 / 2;
+    if (nv21.length != size) {
+      nv21 = new byte[size];
+    }
+    copyToNv21(imageProxy.getPlanes(), bufferCrop, nv21);
+
+    inUse = true;
+    return InputImage.fromByteArray(nv21, cropWidth, cropHeight, rotation,
+        InputImage.IMAGE_FORMAT_NV21);
+  }
+
+  /**
+   * @return horizontal offset of the last crop in upright image coordinates
+   */
+  public int getOffsetX() {
+    return uprightCrop.left;
+  }
+
+  /**
+   * @return vertical offset of the last crop in upright image coordinates
+   */
+  public int getOffsetY() {
+    return uprightCrop.top;
+  }
+
+  /**
+   * Marks the cropped image as no longer needed by the detector, must be called once the detector
+   * is done with the image returned by {@link #crop(ImageProxy, RectF, RectF)}.
+   */
+  public void release() {
+    inUse = false;
+  }
+
+  private static void copyToNv21(PlaneProxy[] planes, Rect crop, byte[] out) {
+    int width = crop.width();
+    int height = crop.height();
+
+    PlaneProxy yPlane = planes[0];
+    ByteBuffer yBuffer = yPlane.getBuffer();
+    int yRowStride = yPlane.getRowStride();
+    int yPixelStride = yPlane.getPixelStride();
+    int position = 0;
+    for (int row = crop.top; row < crop.bottom; row++) {
+      int rowStart = row * yRowStride + crop.left * yPixelStride;
+      if (yPixelStride == 1) {
+        yBuffer.position(rowStart);
+        yBuffer.get(out, position, width);
+        position += width;
+      } else {
+        for (int col = 0; col < width; col++) {
+          out[position++] = yBuffer.get(rowStart + col * yPixelStride);
+        }
+      }
+    }
+
+    ByteBuffer uBuffer = planes[1].getBuffer();
+    ByteBuffer vBuffer = planes[2].getBuffer();
+    int uvRowStride = planes[1].getRowStride();
+    int uvPixelStride = planes[1].getPixelStride();
+    for (int row = crop.top / 2; row < crop.top / 2 + height / 2; row++) {
+      int rowStart = row * uvRowStride + (crop.left / 2) * uvPixelStride;
+      for (int col = 0; col < width / 2; col++) {
+        int index = rowStart + col * uvPixelStride;
+        out[position++] = vBuffer.get(index);
+        out[position++] = uBuffer.get(index);
+      }
+    }
+  }
+}
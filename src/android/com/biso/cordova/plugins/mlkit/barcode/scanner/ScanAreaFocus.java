@@ -0,0 +1,109 @@
+package com.biso.cordova.plugins.mlkit.barcode.scanner;
+
+import android.graphics.RectF;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+import androidx.camera.core.Camera;
+import androidx.camera.core.FocusMeteringAction;
+import androidx.camera.core.MeteringPoint;
+import androidx.camera.view.PreviewView;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Points auto focus and auto exposure at the scan area instead of the whole image, so the lens
+ * doesn't hunt on the background while a small barcode sits in the scan area.
+ * <p>
+ * Focus is set once the first frame has been analyzed, again when barcodes are detected for a
+ * while without becoming stable, and when the user taps the preview. After a few seconds the
+ * camera goes back to continuous focus over the whole image.
+ */
+public class ScanAreaFocus implements DetectionFeedback {
+
+  // frames with barcodes that didn't lead to a result before the focus is triggered again
+  private static final int UNSTABLE_FRAMES = 15;
+  // automatic triggers are ignored if the last one was less than this ago, so the lens can settle
+  private static final long MIN_INTERVAL = 1500;
+  private static final long AUTO_CANCEL = 3000;
+
+  private final PreviewView previewView;
+  private final ScanAreaSource scanAreaSource;
+  private final Handler handler = new Handler(Looper.getMainLooper());
+  private final Runnable automaticFocus = () -> focus(false);
+  private Camera camera;
+  private long lastFocus = 0;
+  private volatile boolean firstFrame = true;
+  // only accessed on the post processing thread
+  private int unstableFrames = 0;
+
+  public ScanAreaFocus(PreviewView previewView, ScanAreaSource scanAreaSource) {
+    this.previewView = previewView;
+    this.scanAreaSource = scanAreaSource;
+  }
+
+  /**
+   * Sets the camera the focus is set on, must be called on the main thread. The focus is set
+   * again once the next frame has been analyzed.
+   *
+   * @param camera the camera, null if the camera isn't bound
+   */
+  public void setCamera(Camera camera) {
+    this.camera = camera;
+    firstFrame = true;
+  }
+
+  @Override
+  public void onFrame(List<DetectedBarcode> barcodes, RectF scanArea, boolean accepted) {
+    boolean trigger = firstFrame;
+    firstFrame = false;
+    if (barcodes.isEmpty() || accepted) {
+      unstableFrames = 0;
+    } else if (++unstableFrames >= UNSTABLE_FRAMES) {
+      unstableFrames = 0;
+      trigger = true;
+    }
+    if (trigger) {
+      handler.post(automaticFocus);
+    }
+  }
+
+  /**
+   * Focuses on the scan area because the user tapped the preview, must be called on the main
+   * thread.
+   */
+  public void onTap() {
+    focus(true);
+  }
+
+  /**
+   * Stops pending triggers, must be called on the main thread.
+   */
+  public void stop() {
+    handler.removeCallbacks(automaticFocus);
+    camera = null;
+  }
+
+  private void focus(boolean force) {
+    RectF scanArea = scanAreaSource.getScanArea();
+    long now = SystemClock.elapsedRealtime();
+    if (camera == null || scanArea == null || previewView.getWidth() == 0
+        || previewView.getHeight() == 0 || (!force && now - lastFocus < MIN_INTERVAL)) {
+      return;
+    }
+    lastFocus = now;
+
+    // the size of a metering point is relative to the preview, the short side of the scan area
+    // keeps it on the barcode for wide scan areas too
+    float size = Math.min(scanArea.width() / previewView.getWidth(),
+        scanArea.height() / previewView.getHeight());
+    MeteringPoint point = previewView.getMeteringPointFactory()
+        .createPoint(scanArea.centerX(), scanArea.centerY(), Math.max(0.05f, Math.min(1f, size)));
+    FocusMeteringAction action = new FocusMeteringAction.Builder(point,
+        FocusMeteringAction.FLAG_AF | FocusMeteringAction.FLAG_AE)
+        .setAutoCancelDuration(AUTO_CANCEL, TimeUnit.MILLISECONDS)
+        .build();
+    // cameras without focus or exposure regions fail the returned future, nothing to do then
+    camera.getCameraControl().startFocusAndMetering(action);
+  }
+}
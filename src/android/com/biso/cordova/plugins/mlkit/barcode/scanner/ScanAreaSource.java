@@ -0,0 +1,20 @@
+package com.biso.cordova.plugins.mlkit.barcode.scanner;
+
+import android.graphics.RectF;
+
+/**
+ * Where the analyzer takes the scan area from. On the device this is the camera overlay, replays
+ * of recorded frames use a fixed area instead, so the analyzer doesn't need a view.
+ */
+public interface ScanAreaSource {
+
+  /**
+   * @return the scan area in overlay coordinates, null as long as it isn't known yet
+   */
+  RectF getScanArea();
+
+  /**
+   * @return the area the camera frame is shown in, null as long as it isn't known yet
+   */
+  RectF getSurfaceArea();
+}
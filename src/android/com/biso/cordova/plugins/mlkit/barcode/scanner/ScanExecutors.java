@@ -0,0 +1,126 @@
+package com.biso.cordova.plugins.mlkit.barcode.scanner;
+
+import android.os.Process;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Plugin wide threads the scanning work runs on. The threads are created once and reused for all
+ * scans, so no threads are leaked when scans are started over and over again. They run at a
+ * configurable priority, so frame analysis isn't starved by background work, and are shut down
+ * when the plugin is destroyed.
+ */
+public class ScanExecutors {
+
+  public static final int DEFAULT_PRIORITY = Process.THREAD_PRIORITY_DEFAULT;
+  private static final String DETECTION_THREAD = "MLKitDetection";
+  private static final String POST_PROCESSING_THREAD = "MLKitPostProcessing";
+  private static final String DECODE_THREAD = "MLKitDecode";
+  private static final long DECODE_KEEP_ALIVE = 30;
+  private static volatile int priority = DEFAULT_PRIORITY;
+  private static ExecutorService detection;
+  private static ExecutorService postProcessing;
+  private static ThreadPoolExecutor decode;
+
+  /**
+   * @return the executor camera frames are analyzed and barcodes are detected on
+   */
+  public static synchronized ExecutorService getDetectionExecutor() {
+    if (detection == null || detection.isShutdown()) {
+      detection = create(DETECTION_THREAD);
+    }
+    return detection;
+  }
+
+  /**
+   * @param split true to process results on their own thread, false to process them on the
+   *              detection thread
+   * @return the executor detected barcodes are processed on
+   */
+  public static synchronized ExecutorService getPostProcessingExecutor(boolean split) {
+    if (!split) {
+      return getDetectionExecutor();
+    }
+    if (postProcessing == null || postProcessing.isShutdown()) {
+      postProcessing = create(POST_PROCESSING_THREAD);
+    }
+    return postProcessing;
+  }
+
+  /**
+   * Returns the pool still images are loaded and decoded on. It has one thread per core, so the
+   * number of images in memory at the same time is bounded. The threads run at background priority
+   * and end when they had nothing to do for a while.
+   *
+   * @return the executor still images are decoded on
+   */
+  public static synchronized ThreadPoolExecutor getDecodeExecutor() {
+    if (decode == null || decode.isShutdown()) {
+      int threads = Math.max(1, Runtime.getRuntime().availableProcessors());
+      AtomicInteger count = new AtomicInteger();
+      decode = new ThreadPoolExecutor(threads, threads, DECODE_KEEP_ALIVE, TimeUnit.SECONDS,
+          new LinkedBlockingQueue<>(), runnable -> new Thread(() -> {
+            Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+            runnable.run();
+          }, DECODE_THREAD + "-" + count.incrementAndGet()));
+      decode.allowCoreThreadTimeOut(true);
+    }
+    return decode;
+  }
+
+  /**
+   * Sets the priority of the scanning threads, threads that are already running are changed too.
+   *
+   * @param threadPriority linux thread priority as used by {@link Process#setThreadPriority(int)},
+   *                       from -20 (highest) to 19 (lowest)
+   */
+  public static synchronized void setThreadPriority(int threadPriority) {
+    int clamped = Math.max(-20, Math.min(19, threadPriority));
+    if (clamped == priority) {
+      return;
+    }
+    priority = clamped;
+    if (detection != null && !detection.isShutdown()) {
+      detection.execute(() -> Process.setThreadPriority(clamped));
+    }
+    if (postProcessing != null && !postProcessing.isShutdown()) {
+      postProcessing.execute(() -> Process.setThreadPriority(clamped));
+    }
+  }
+
+  /**
+   * Stops the scanning threads, they are created again when they are needed the next time. The
+   * clients of the {@link BarcodeScannerPool} are closed first, they would be stuck with an
+   * executor that doesn't run anything anymore.
+   */
+  public static synchronized void shutdown() {
+    BarcodeScannerPool.closeAll();
+    if (detection != null) {
+      detection.shutdown();
+      detection = null;
+    }
+    if (postProcessing != null) {
+      postProcessing.shutdown();
+      postProcessing = null;
+    }
+    if (decode != null) {
+      decode.shutdown();
+      decode = null;
+    }
+  }
+
+  private static ExecutorService create(String name) {
+    return Executors.newSingleThreadExecutor(runnable -> new Thread(() -> {
+      Process.setThreadPriority(priority);
+      runnable.run();
+    }, name));
+  }
+
+  private ScanExecutors() {
+    throw new IllegalStateException("Utility class");
+  }
+}
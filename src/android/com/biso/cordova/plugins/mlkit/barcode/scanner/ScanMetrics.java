@@ -0,0 +1,159 @@
+package com.biso.cordova.plugins.mlkit.barcode.scanner;
+
+import android.os.SystemClock;
+import java.util.Arrays;
+import java.util.List;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+/**
+ * Collects performance data of a single scan session, from the start of the activity to the
+ * result. All times are in milliseconds.
+ */
+public class ScanMetrics {
+
+  public static final String METRICS = "metrics";
+  private static final int MAX_LATENCY_SAMPLES = 1024;
+
+  private final long activityStart;
+  private long cameraBound = -1;
+  private long firstFrame = -1;
+  private int framesAnalyzed = 0;
+  private int framesDropped = 0;
+  private int framesRejected = 0;
+  private final long[] latencies = new long[MAX_LATENCY_SAMPLES];
+  private int latencyCount = 0;
+  private long maxLatency = 0;
+  private int stabilizationFrames = 0;
+  private long firstResult = -1;
+  private final long[] formatCounts = new long[TuningProfile.FORMAT_BITS];
+
+  public ScanMetrics() {
+    activityStart = SystemClock.elapsedRealtime();
+  }
+
+  public synchronized void onCameraBound() {
+    if (cameraBound < 0) {
+      cameraBound = SystemClock.elapsedRealtime();
+    }
+  }
+
+  /**
+   * Called for every frame the camera delivers, analyzed or not.
+   */
+  public synchronized void onFrameReceived() {
+    if (firstFrame < 0) {
+      firstFrame = SystemClock.elapsedRealtime();
+    }
+  }
+
+  public synchronized void onFrameDropped() {
+    framesDropped++;
+  }
+
+  /**
+   * Called for every frame the frame quality gate kept away from the detector.
+   */
+  public synchronized void onFrameRejected() {
+    framesRejected++;
+  }
+
+  /**
+   * @param latency time the detector needed for the frame
+   */
+  public synchronized void onFrameDetected(long latency) {
+    framesAnalyzed++;
+    // keeps the latest samples once the buffer is full
+    latencies[latencyCount % MAX_LATENCY_SAMPLES] = latency;
+    latencyCount++;
+    maxLatency = Math.max(maxLatency, latency);
+  }
+
+  /**
+   * Called for every frame that contains barcodes but didn't lead to a result (yet).
+   */
+  public synchronized void onStabilizationFrame() {
+    stabilizationFrames++;
+  }
+
+  /**
+   * Called for every result that is reported, counts the formats of its barcodes.
+   *
+   * @param barcodes the reported barcodes
+   */
+  public synchronized void onBarcodesReported(List<DetectedBarcode> barcodes) {
+    if (firstResult < 0) {
+      firstResult = SystemClock.elapsedRealtime();
+    }
+    for (int i = 0; i < barcodes.size(); i++) {
+      int bit = Integer.numberOfTrailingZeros(barcodes.get(i).getFormat());
+      if (bit < formatCounts.length) {
+        formatCounts[bit]++;
+      }
+    }
+  }
+
+  /**
+   * @param percentile the percentile, from 0 to 1
+   * @return the percentile of the detector latency, -1 if no frame was detected yet
+   */
+  public synchronized long getLatencyPercentile(double percentile) {
+    long[] sorted = Arrays.copyOf(latencies, Math.min(latencyCount, MAX_LATENCY_SAMPLES));
+    Arrays.sort(sorted);
+    return percentile(sorted, percentile);
+  }
+
+  /**
+   * @return time from the start of the scanner to the first result, -1 if there was none
+   */
+  public synchronized long getTimeToFirstResult() {
+    return firstResult < 0 ? -1 : firstResult - activityStart;
+  }
+
+  /**
+   * @return how often each format was reported, indexed by the bit of the format
+   */
+  public synchronized long[] getFormatCounts() {
+    return formatCounts.clone();
+  }
+
+  /**
+   * Creates a snapshot of the metrics at the time a result was found and starts counting
+   * stabilization frames from zero for the next result.
+   *
+   * @return the metrics as json
+   * @throws JSONException if the json can't be created
+   */
+  public synchronized JSONObject onResult() throws JSONException {
+    long now = SystemClock.elapsedRealtime();
+    int samples = Math.min(latencyCount, MAX_LATENCY_SAMPLES);
+    long[] sorted = Arrays.copyOf(latencies, samples);
+    Arrays.sort(sorted);
+
+    JSONObject detectorLatency = new JSONObject();
+    detectorLatency.put("p50", percentile(sorted, 0.5));
+    detectorLatency.put("p95", percentile(sorted, 0.95));
+    detectorLatency.put("max", maxLatency);
+
+    JSONObject result = new JSONObject();
+    result.put("cameraStartup", cameraBound < 0 ? -1 : cameraBound - activityStart);
+    result.put("firstFrame", firstFrame < 0 ? -1 : firstFrame - activityStart);
+    result.put("framesAnalyzed", framesAnalyzed);
+    result.put("framesDropped", framesDropped);
+    result.put("framesRejected", framesRejected);
+    result.put("detectorLatency", detectorLatency);
+    result.put("stabilizationFrames", stabilizationFrames);
+    result.put("timeToResult", now - activityStart);
+
+    stabilizationFrames = 0;
+    return result;
+  }
+
+  private static long percentile(long[] sorted, double percentile) {
+    if (sorted.length == 0) {
+      return -1;
+    }
+    int index = (int) Math.ceil(percentile * sorted.length) - 1;
+    return sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+  }
+}
@@ -31,6 +31,46 @@ public class ScannerSettings implements Parcelable {
   private int stableThreshold = 5;
   private boolean debugOverlay = false;
   private boolean ignoreRotatedBarcodes = false;
+  private boolean continuousMode = false;
+  private boolean cropToScanArea = false;
+  private double scanAreaMargin = 0.1;
+  private String analysisResolution = "";
+  private int maxAnalysisFps = 0;
+  private String backpressureStrategy = "keepOnlyLatest";
+  private int detectionLatencyBudget = 100;
+  private boolean reportMetrics = false;
+  private String stabilizationMode = "strict";
+  private int stabilizationWindow = 10;
+  private double stabilizationHitRatio = 0.6;
+  private int stabilizationDwellTime = 0;
+  private boolean batchMode = false;
+  private int batchSize = 0;
+  private int batchTimeout = 0;
+  private boolean batchProgress = false;
+  private boolean streamResults = false;
+  private int streamQueueSize = 32;
+  private int streamMaxEventRate = 10;
+  private boolean streamIncludeBounds = false;
+  private int recentlySeenTtl = 0;
+  private int recentlySeenSize = 100;
+  private String recentlySeenMode = "skip";
+  private boolean recentlySeenPersist = true;
+  private int fastPathThreshold = 0;
+  private double fastPathMovementTolerance = 0.05;
+  private int analysisThreadPriority = ScanExecutors.DEFAULT_PRIORITY;
+  private boolean splitPostProcessing = false;
+  private boolean trackBarcodes = false;
+  private boolean adaptiveFormats = false;
+  private int adaptiveFullScanInterval = 15;
+  private int keepCameraOpen = 0;
+  private boolean tuningProfile = false;
+  private double minFrameSharpness = 0;
+  private double minFrameLuminance = 0;
+  private double maxFrameDifference = 0;
+  private boolean focusOnScanArea = false;
+  private boolean autoZoom = false;
+  private boolean pinchToZoom = false;
+  private double initialZoomRatio = 1;
 
   public ScannerSettings(JSONObject settings) {
     Iterator<String> keys = settings.keys();
@@ -103,6 +143,164 @@ public class ScannerSettings implements Parcelable {
             ignoreRotatedBarcodes = settings.optBoolean(IGNORE_ROTATED_BARCODES.value(),
                 isIgnoreRotatedBarcodes());
             break;
+          case CONTINUOUS_MODE:
+            continuousMode = settings.optBoolean(CONTINUOUS_MODE.value(), isContinuousMode());
+            break;
+          case CROP_TO_SCAN_AREA:
+            cropToScanArea = settings.optBoolean(CROP_TO_SCAN_AREA.value(), isCropToScanArea());
+            break;
+          case SCAN_AREA_MARGIN:
+            double margin = settings.optDouble(SCAN_AREA_MARGIN.value(), getScanAreaMargin());
+            if (margin >= 0) {
+              scanAreaMargin = margin;
+            }
+            break;
+          case ANALYSIS_RESOLUTION:
+            analysisResolution = settings.optString(ANALYSIS_RESOLUTION.value(),
+                getAnalysisResolution());
+            break;
+          case MAX_ANALYSIS_FPS:
+            maxAnalysisFps = settings.optInt(MAX_ANALYSIS_FPS.value(), getMaxAnalysisFps());
+            break;
+          case BACKPRESSURE_STRATEGY:
+            backpressureStrategy = settings.optString(BACKPRESSURE_STRATEGY.value(),
+                getBackpressureStrategy());
+            break;
+          case DETECTION_LATENCY_BUDGET:
+            detectionLatencyBudget = settings.optInt(DETECTION_LATENCY_BUDGET.value(),
+                getDetectionLatencyBudget());
+            break;
+          case REPORT_METRICS:
+            reportMetrics = settings.optBoolean(REPORT_METRICS.value(), isReportMetrics());
+            break;
+          case STABILIZATION_MODE:
+            stabilizationMode = settings.optString(STABILIZATION_MODE.value(),
+                getStabilizationMode());
+            break;
+          case STABILIZATION_WINDOW:
+            stabilizationWindow = settings.optInt(STABILIZATION_WINDOW.value(),
+                getStabilizationWindow());
+            break;
+          case STABILIZATION_HIT_RATIO:
+            double hitRatio = settings.optDouble(STABILIZATION_HIT_RATIO.value(),
+                getStabilizationHitRatio());
+            if (hitRatio > 0 && hitRatio <= 1) {
+              stabilizationHitRatio = hitRatio;
+            }
+            break;
+          case STABILIZATION_DWELL_TIME:
+            stabilizationDwellTime = settings.optInt(STABILIZATION_DWELL_TIME.value(),
+                getStabilizationDwellTime());
+            break;
+          case BATCH_MODE:
+            batchMode = settings.optBoolean(BATCH_MODE.value(), isBatchMode());
+            break;
+          case BATCH_SIZE:
+            batchSize = settings.optInt(BATCH_SIZE.value(), getBatchSize());
+            break;
+          case BATCH_TIMEOUT:
+            batchTimeout = settings.optInt(BATCH_TIMEOUT.value(), getBatchTimeout());
+            break;
+          case BATCH_PROGRESS:
+            batchProgress = settings.optBoolean(BATCH_PROGRESS.value(), isBatchProgress());
+            break;
+          case STREAM_RESULTS:
+            streamResults = settings.optBoolean(STREAM_RESULTS.value(), isStreamResults());
+            break;
+          case STREAM_QUEUE_SIZE:
+            int streamQueue = settings.optInt(STREAM_QUEUE_SIZE.value(), getStreamQueueSize());
+            if (streamQueue > 0) {
+              streamQueueSize = streamQueue;
+            }
+            break;
+          case STREAM_MAX_EVENT_RATE:
+            streamMaxEventRate = settings.optInt(STREAM_MAX_EVENT_RATE.value(),
+                getStreamMaxEventRate());
+            break;
+          case STREAM_INCLUDE_BOUNDS:
+            streamIncludeBounds = settings.optBoolean(STREAM_INCLUDE_BOUNDS.value(),
+                isStreamIncludeBounds());
+            break;
+          case RECENTLY_SEEN_TTL:
+            recentlySeenTtl = settings.optInt(RECENTLY_SEEN_TTL.value(), getRecentlySeenTtl());
+            break;
+          case RECENTLY_SEEN_SIZE:
+            int recentSize = settings.optInt(RECENTLY_SEEN_SIZE.value(), getRecentlySeenSize());
+            if (recentSize > 0) {
+              recentlySeenSize = recentSize;
+            }
+            break;
+          case RECENTLY_SEEN_MODE:
+            recentlySeenMode = settings.optString(RECENTLY_SEEN_MODE.value(),
+                getRecentlySeenMode());
+            break;
+          case RECENTLY_SEEN_PERSIST:
+            recentlySeenPersist = settings.optBoolean(RECENTLY_SEEN_PERSIST.value(),
+                isRecentlySeenPersist());
+            break;
+          case FAST_PATH_THRESHOLD:
+            fastPathThreshold = settings.optInt(FAST_PATH_THRESHOLD.value(),
+                getFastPathThreshold());
+            break;
+          case FAST_PATH_MOVEMENT_TOLERANCE:
+            fastPathMovementTolerance = settings.optDouble(FAST_PATH_MOVEMENT_TOLERANCE.value(),
+                getFastPathMovementTolerance());
+            break;
+          case ANALYSIS_THREAD_PRIORITY:
+            int threadPriority = settings.optInt(ANALYSIS_THREAD_PRIORITY.value(),
+                getAnalysisThreadPriority());
+            if (threadPriority >= -20 && threadPriority <= 19) {
+              analysisThreadPriority = threadPriority;
+            }
+            break;
+          case SPLIT_POST_PROCESSING:
+            splitPostProcessing = settings.optBoolean(SPLIT_POST_PROCESSING.value(),
+                isSplitPostProcessing());
+            break;
+          case TRACK_BARCODES:
+            trackBarcodes = settings.optBoolean(TRACK_BARCODES.value(), isTrackBarcodes());
+            break;
+          case ADAPTIVE_FORMATS:
+            adaptiveFormats = settings.optBoolean(ADAPTIVE_FORMATS.value(), isAdaptiveFormats());
+            break;
+          case ADAPTIVE_FULL_SCAN_INTERVAL:
+            int interval = settings.optInt(ADAPTIVE_FULL_SCAN_INTERVAL.value(),
+                getAdaptiveFullScanInterval());
+            if (interval > 0) {
+              adaptiveFullScanInterval = interval;
+            }
+            break;
+          case KEEP_CAMERA_OPEN:
+            keepCameraOpen = settings.optInt(KEEP_CAMERA_OPEN.value(), getKeepCameraOpen());
+            break;
+          case TUNING_PROFILE:
+            tuningProfile = settings.optBoolean(TUNING_PROFILE.value(), isTuningProfile());
+            break;
+          case MIN_FRAME_SHARPNESS:
+            minFrameSharpness = settings.optDouble(MIN_FRAME_SHARPNESS.value(),
+                getMinFrameSharpness());
+            break;
+          case MIN_FRAME_LUMINANCE:
+            minFrameLuminance = settings.optDouble(MIN_FRAME_LUMINANCE.value(),
+                getMinFrameLuminance());
+            break;
+          case MAX_FRAME_DIFFERENCE:
+            maxFrameDifference = settings.optDouble(MAX_FRAME_DIFFERENCE.value(),
+                getMaxFrameDifference());
+            break;
+          case FOCUS_ON_SCAN_AREA:
+            focusOnScanArea = settings.optBoolean(FOCUS_ON_SCAN_AREA.value(), isFocusOnScanArea());
+            break;
+          case AUTO_ZOOM:
+            autoZoom = settings.optBoolean(AUTO_ZOOM.value(), isAutoZoom());
+            break;
+          case PINCH_TO_ZOOM:
+            pinchToZoom = settings.optBoolean(PINCH_TO_ZOOM.value(), isPinchToZoom());
+            break;
+          case INITIAL_ZOOM_RATIO:
+            initialZoomRatio = settings.optDouble(INITIAL_ZOOM_RATIO.value(),
+                getInitialZoomRatio());
+            break;
           default:
             Log.e("SETTINGS", "No known setting for " + key);
             break;
@@ -185,6 +383,166 @@ public class ScannerSettings implements Parcelable {
     return ignoreRotatedBarcodes;
   }
 
+  public boolean isContinuousMode() {
+    return continuousMode;
+  }
+
+  public boolean isCropToScanArea() {
+    return cropToScanArea;
+  }
+
+  public double getScanAreaMargin() {
+    return scanAreaMargin;
+  }
+
+  public String getAnalysisResolution() {
+    return analysisResolution;
+  }
+
+  public int getMaxAnalysisFps() {
+    return maxAnalysisFps;
+  }
+
+  public String getBackpressureStrategy() {
+    return backpressureStrategy;
+  }
+
+  public int getDetectionLatencyBudget() {
+    return detectionLatencyBudget;
+  }
+
+  public boolean isReportMetrics() {
+    return reportMetrics;
+  }
+
+  public String getStabilizationMode() {
+    return stabilizationMode;
+  }
+
+  public int getStabilizationWindow() {
+    return stabilizationWindow;
+  }
+
+  public double getStabilizationHitRatio() {
+    return stabilizationHitRatio;
+  }
+
+  public int getStabilizationDwellTime() {
+    return stabilizationDwellTime;
+  }
+
+  public boolean isBatchMode() {
+    return batchMode;
+  }
+
+  public int getBatchSize() {
+    return batchSize;
+  }
+
+  public int getBatchTimeout() {
+    return batchTimeout;
+  }
+
+  public boolean isBatchProgress() {
+    return batchProgress;
+  }
+
+  public boolean isStreamResults() {
+    return streamResults;
+  }
+
+  public int getStreamQueueSize() {
+    return streamQueueSize;
+  }
+
+  public int getStreamMaxEventRate() {
+    return streamMaxEventRate;
+  }
+
+  public boolean isStreamIncludeBounds() {
+    return streamIncludeBounds;
+  }
+
+  public int getRecentlySeenTtl() {
+    return recentlySeenTtl;
+  }
+
+  public int getRecentlySeenSize() {
+    return recentlySeenSize;
+  }
+
+  public String getRecentlySeenMode() {
+    return recentlySeenMode;
+  }
+
+  public boolean isRecentlySeenPersist() {
+    return recentlySeenPersist;
+  }
+
+  public int getFastPathThreshold() {
+    return fastPathThreshold;
+  }
+
+  public double getFastPathMovementTolerance() {
+    return fastPathMovementTolerance;
+  }
+
+  public int getAnalysisThreadPriority() {
+    return analysisThreadPriority;
+  }
+
+  public boolean isSplitPostProcessing() {
+    return splitPostProcessing;
+  }
+
+  public boolean isTrackBarcodes() {
+    return trackBarcodes;
+  }
+
+  public boolean isAdaptiveFormats() {
+    return adaptiveFormats;
+  }
+
+  public int getAdaptiveFullScanInterval() {
+    return adaptiveFullScanInterval;
+  }
+
+  public int getKeepCameraOpen() {
+    return keepCameraOpen;
+  }
+
+  public boolean isTuningProfile() {
+    return tuningProfile;
+  }
+
+  public double getMinFrameSharpness() {
+    return minFrameSharpness;
+  }
+
+  public double getMinFrameLuminance() {
+    return minFrameLuminance;
+  }
+
+  public double getMaxFrameDifference() {
+    return maxFrameDifference;
+  }
+
+  public boolean isFocusOnScanArea() {
+    return focusOnScanArea;
+  }
+
+  public boolean isAutoZoom() {
+    return autoZoom;
+  }
+
+  public boolean isPinchToZoom() {
+    return pinchToZoom;
+  }
+
+  public double getInitialZoomRatio() {
+    return initialZoomRatio;
+  }
+
   @Override
   public boolean equals(Object o) {
     if (this == o) {
@@ -208,10 +566,50 @@ public class ScannerSettings implements Parcelable {
         && getStableThreshold() == that.getStableThreshold()
         && isDebugOverlay() == that.isDebugOverlay()
         && isIgnoreRotatedBarcodes() == that.isIgnoreRotatedBarcodes()
+        && isContinuousMode() == that.isContinuousMode()
+        && isCropToScanArea() == that.isCropToScanArea()
+        && Double.compare(that.getScanAreaMargin(), getScanAreaMargin()) == 0
+        && getMaxAnalysisFps() == that.getMaxAnalysisFps()
+        && getDetectionLatencyBudget() == that.getDetectionLatencyBudget()
+        && isReportMetrics() == that.isReportMetrics()
+        && getStabilizationWindow() == that.getStabilizationWindow()
+        && Double.compare(that.getStabilizationHitRatio(), getStabilizationHitRatio()) == 0
+        && getStabilizationDwellTime() == that.getStabilizationDwellTime()
+        && isBatchMode() == that.isBatchMode()
+        && getBatchSize() == that.getBatchSize()
+        && getBatchTimeout() == that.getBatchTimeout()
+        && isBatchProgress() == that.isBatchProgress()
+        && isStreamResults() == that.isStreamResults()
+        && getStreamQueueSize() == that.getStreamQueueSize()
+        && getStreamMaxEventRate() == that.getStreamMaxEventRate()
+        && isStreamIncludeBounds() == that.isStreamIncludeBounds()
+        && getRecentlySeenTtl() == that.getRecentlySeenTtl()
+        && getRecentlySeenSize() == that.getRecentlySeenSize()
+        && isRecentlySeenPersist() == that.isRecentlySeenPersist()
+        && getFastPathThreshold() == that.getFastPathThreshold()
+        && Double.compare(that.getFastPathMovementTolerance(), getFastPathMovementTolerance()) == 0
+        && getAnalysisThreadPriority() == that.getAnalysisThreadPriority()
+        && isSplitPostProcessing() == that.isSplitPostProcessing()
+        && isTrackBarcodes() == that.isTrackBarcodes()
+        && isAdaptiveFormats() == that.isAdaptiveFormats()
+        && getAdaptiveFullScanInterval() == that.getAdaptiveFullScanInterval()
+        && getKeepCameraOpen() == that.getKeepCameraOpen()
+        && isTuningProfile() == that.isTuningProfile()
+        && Double.compare(that.getMinFrameSharpness(), getMinFrameSharpness()) == 0
+        && Double.compare(that.getMinFrameLuminance(), getMinFrameLuminance()) == 0
+        && Double.compare(that.getMaxFrameDifference(), getMaxFrameDifference()) == 0
+        && isFocusOnScanArea() == that.isFocusOnScanArea()
+        && isAutoZoom() == that.isAutoZoom()
+        && isPinchToZoom() == that.isPinchToZoom()
+        && Double.compare(that.getInitialZoomRatio(), getInitialZoomRatio()) == 0
         && getAspectRatio().equals(that.getAspectRatio()) && getFocusRectColor().equals(
         that.getFocusRectColor())
         && getFocusLineColor().equals(that.getFocusLineColor()) && getFocusBackgroundColor().equals(
-        that.getFocusBackgroundColor());
+        that.getFocusBackgroundColor())
+        && getAnalysisResolution().equals(that.getAnalysisResolution())
+        && getBackpressureStrategy().equals(that.getBackpressureStrategy())
+        && getStabilizationMode().equals(that.getStabilizationMode())
+        && getRecentlySeenMode().equals(that.getRecentlySeenMode());
   }
 
   @Override
@@ -223,7 +621,47 @@ public class ScannerSettings implements Parcelable {
         getFocusLineColor(), getFocusLineThickness(), isDrawFocusBackground(),
         getFocusBackgroundColor(),
         isBeepOnSuccess(),
-        isVibrateOnSuccess(), getStableThreshold(), isDebugOverlay(), isIgnoreRotatedBarcodes());
+        isVibrateOnSuccess(), getStableThreshold(), isDebugOverlay(), isIgnoreRotatedBarcodes(),
+        isContinuousMode(),
+        isCropToScanArea(),
+        getScanAreaMargin(),
+        getAnalysisResolution(),
+        getMaxAnalysisFps(),
+        getBackpressureStrategy(),
+        getDetectionLatencyBudget(),
+        isReportMetrics(),
+        getStabilizationMode(),
+        getStabilizationWindow(),
+        getStabilizationHitRatio(),
+        getStabilizationDwellTime(),
+        isBatchMode(),
+        getBatchSize(),
+        getBatchTimeout(),
+        isBatchProgress(),
+        isStreamResults(),
+        getStreamQueueSize(),
+        getStreamMaxEventRate(),
+        isStreamIncludeBounds(),
+        getRecentlySeenTtl(),
+        getRecentlySeenSize(),
+        getRecentlySeenMode(),
+        isRecentlySeenPersist(),
+        getFastPathThreshold(),
+        getFastPathMovementTolerance(),
+        getAnalysisThreadPriority(),
+        isSplitPostProcessing(),
+        isTrackBarcodes(),
+        isAdaptiveFormats(),
+        getAdaptiveFullScanInterval(),
+        getKeepCameraOpen(),
+        isTuningProfile(),
+        getMinFrameSharpness(),
+        getMinFrameLuminance(),
+        getMaxFrameDifference(),
+        isFocusOnScanArea(),
+        isAutoZoom(),
+        isPinchToZoom(),
+        getInitialZoomRatio());
   }
 
   @Override
@@ -251,6 +689,46 @@ public class ScannerSettings implements Parcelable {
     dest.writeInt(this.getStableThreshold());
     dest.writeByte(this.isDebugOverlay() ? (byte) 1 : (byte) 0);
     dest.writeByte(this.isIgnoreRotatedBarcodes() ? (byte) 1 : (byte) 0);
+    dest.writeByte(this.isContinuousMode() ? (byte) 1 : (byte) 0);
+    dest.writeByte(this.isCropToScanArea() ? (byte) 1 : (byte) 0);
+    dest.writeDouble(this.getScanAreaMargin());
+    dest.writeString(this.getAnalysisResolution());
+    dest.writeInt(this.getMaxAnalysisFps());
+    dest.writeString(this.getBackpressureStrategy());
+    dest.writeInt(this.getDetectionLatencyBudget());
+    dest.writeByte(this.isReportMetrics() ? (byte) 1 : (byte) 0);
+    dest.writeString(this.getStabilizationMode());
+    dest.writeInt(this.getStabilizationWindow());
+    dest.writeDouble(this.getStabilizationHitRatio());
+    dest.writeInt(this.getStabilizationDwellTime());
+    dest.writeByte(this.isBatchMode() ? (byte) 1 : (byte) 0);
+    dest.writeInt(this.getBatchSize());
+    dest.writeInt(this.getBatchTimeout());
+    dest.writeByte(this.isBatchProgress() ? (byte) 1 : (byte) 0);
+    dest.writeByte(this.isStreamResults() ? (byte) 1 : (byte) 0);
+    dest.writeInt(this.getStreamQueueSize());
+    dest.writeInt(this.getStreamMaxEventRate());
+    dest.writeByte(this.isStreamIncludeBounds() ? (byte) 1 : (byte) 0);
+    dest.writeInt(this.getRecentlySeenTtl());
+    dest.writeInt(this.getRecentlySeenSize());
+    dest.writeString(this.getRecentlySeenMode());
+    dest.writeByte(this.isRecentlySeenPersist() ? (byte) 1 : (byte) 0);
+    dest.writeInt(this.getFastPathThreshold());
+    dest.writeDouble(this.getFastPathMovementTolerance());
+    dest.writeInt(this.getAnalysisThreadPriority());
+    dest.writeByte(this.isSplitPostProcessing() ? (byte) 1 : (byte) 0);
+    dest.writeByte(this.isTrackBarcodes() ? (byte) 1 : (byte) 0);
+    dest.writeByte(this.isAdaptiveFormats() ? (byte) 1 : (byte) 0);
+    dest.writeInt(this.getAdaptiveFullScanInterval());
+    dest.writeInt(this.getKeepCameraOpen());
+    dest.writeByte(this.isTuningProfile() ? (byte) 1 : (byte) 0);
+    dest.writeDouble(this.getMinFrameSharpness());
+    dest.writeDouble(this.getMinFrameLuminance());
+    dest.writeDouble(this.getMaxFrameDifference());
+    dest.writeByte(this.isFocusOnScanArea() ? (byte) 1 : (byte) 0);
+    dest.writeByte(this.isAutoZoom() ? (byte) 1 : (byte) 0);
+    dest.writeByte(this.isPinchToZoom() ? (byte) 1 : (byte) 0);
+    dest.writeDouble(this.getInitialZoomRatio());
   }
 
   public void readFromParcel(Parcel source) {
@@ -272,6 +750,46 @@ public class ScannerSettings implements Parcelable {
     this.stableThreshold = source.readInt();
     this.debugOverlay = source.readByte() != 0;
     this.ignoreRotatedBarcodes = source.readByte() != 0;
+    this.continuousMode = source.readByte() != 0;
+    this.cropToScanArea = source.readByte() != 0;
+    this.scanAreaMargin = source.readDouble();
+    this.analysisResolution = source.readString();
+    this.maxAnalysisFps = source.readInt();
+    this.backpressureStrategy = source.readString();
+    this.detectionLatencyBudget = source.readInt();
+    this.reportMetrics = source.readByte() != 0;
+    this.stabilizationMode = source.readString();
+    this.stabilizationWindow = source.readInt();
+    this.stabilizationHitRatio = source.readDouble();
+    this.stabilizationDwellTime = source.readInt();
+    this.batchMode = source.readByte() != 0;
+    this.batchSize = source.readInt();
+    this.batchTimeout = source.readInt();
+    this.batchProgress = source.readByte() != 0;
+    this.streamResults = source.readByte() != 0;
+    this.streamQueueSize = source.readInt();
+    this.streamMaxEventRate = source.readInt();
+    this.streamIncludeBounds = source.readByte() != 0;
+    this.recentlySeenTtl = source.readInt();
+    this.recentlySeenSize = source.readInt();
+    this.recentlySeenMode = source.readString();
+    this.recentlySeenPersist = source.readByte() != 0;
+    this.fastPathThreshold = source.readInt();
+    this.fastPathMovementTolerance = source.readDouble();
+    this.analysisThreadPriority = source.readInt();
+    this.splitPostProcessing = source.readByte() != 0;
+    this.trackBarcodes = source.readByte() != 0;
+    this.adaptiveFormats = source.readByte() != 0;
+    this.adaptiveFullScanInterval = source.readInt();
+    this.keepCameraOpen = source.readInt();
+    this.tuningProfile = source.readByte() != 0;
+    this.minFrameSharpness = source.readDouble();
+    this.minFrameLuminance = source.readDouble();
+    this.maxFrameDifference = source.readDouble();
+    this.focusOnScanArea = source.readByte() != 0;
+    this.autoZoom = source.readByte() != 0;
+    this.pinchToZoom = source.readByte() != 0;
+    this.initialZoomRatio = source.readDouble();
   }
 
   protected ScannerSettings(Parcel in) {
@@ -293,6 +811,46 @@ public class ScannerSettings implements Parcelable {
     this.stableThreshold = in.readInt();
     this.debugOverlay = in.readByte() != 0;
     this.ignoreRotatedBarcodes = in.readByte() != 0;
+    this.continuousMode = in.readByte() != 0;
+    this.cropToScanArea = in.readByte() != 0;
+    this.scanAreaMargin = in.readDouble();
+    this.analysisResolution = in.readString();
+    this.maxAnalysisFps = in.readInt();
+    this.backpressureStrategy = in.readString();
+    this.detectionLatencyBudget = in.readInt();
+    this.reportMetrics = in.readByte() != 0;
+    this.stabilizationMode = in.readString();
+    this.stabilizationWindow = in.readInt();
+    this.stabilizationHitRatio = in.readDouble();
+    this.stabilizationDwellTime = in.readInt();
+    this.batchMode = in.readByte() != 0;
+    this.batchSize = in.readInt();
+    this.batchTimeout = in.readInt();
+    this.batchProgress = in.readByte() != 0;
+    this.streamResults = in.readByte() != 0;
+    this.streamQueueSize = in.readInt();
+    this.streamMaxEventRate = in.readInt();
+    this.streamIncludeBounds = in.readByte() != 0;
+    this.recentlySeenTtl = in.readInt();
+    this.recentlySeenSize = in.readInt();
+    this.recentlySeenMode = in.readString();
+    this.recentlySeenPersist = in.readByte() != 0;
+    this.fastPathThreshold = in.readInt();
+    this.fastPathMovementTolerance = in.readDouble();
+    this.analysisThreadPriority = in.readInt();
+    this.splitPostProcessing = in.readByte() != 0;
+    this.trackBarcodes = in.readByte() != 0;
+    this.adaptiveFormats = in.readByte() != 0;
+    this.adaptiveFullScanInterval = in.readInt();
+    this.keepCameraOpen = in.readInt();
+    this.tuningProfile = in.readByte() != 0;
+    this.minFrameSharpness = in.readDouble();
+    this.minFrameLuminance = in.readDouble();
+    this.maxFrameDifference = in.readDouble();
+    this.focusOnScanArea = in.readByte() != 0;
+    this.autoZoom = in.readByte() != 0;
+    this.pinchToZoom = in.readByte() != 0;
+    this.initialZoomRatio = in.readDouble();
   }
 
   public static final Creator<ScannerSettings> CREATOR = new Creator<ScannerSettings>() {
@@ -326,7 +884,47 @@ public class ScannerSettings implements Parcelable {
     VIBRATE_ON_SUCCESS("vibrateOnSuccess"),
     STABLE_THRESHOLD("stableThreshold"),
     DEBUG_OVERLAY("debugOverlay"),
-    IGNORE_ROTATED_BARCODES("ignoreRotatedBarcodes");
+    IGNORE_ROTATED_BARCODES("ignoreRotatedBarcodes"),
+    CONTINUOUS_MODE("continuousMode"),
+    CROP_TO_SCAN_AREA("cropToScanArea"),
+    SCAN_AREA_MARGIN("scanAreaMargin"),
+    ANALYSIS_RESOLUTION("analysisResolution"),
+    MAX_ANALYSIS_FPS("maxAnalysisFps"),
+    BACKPRESSURE_STRATEGY("backpressureStrategy"),
+    DETECTION_LATENCY_BUDGET("detectionLatencyBudget"),
+    REPORT_METRICS("reportMetrics"),
+    STABILIZATION_MODE("stabilizationMode"),
+    STABILIZATION_WINDOW("stabilizationWindow"),
+    STABILIZATION_HIT_RATIO("stabilizationHitRatio"),
+    STABILIZATION_DWELL_TIME("stabilizationDwellTime"),
+    BATCH_MODE("batchMode"),
+    BATCH_SIZE("batchSize"),
+    BATCH_TIMEOUT("batchTimeout"),
+    BATCH_PROGRESS("batchProgress"),
+    STREAM_RESULTS("streamResults"),
+    STREAM_QUEUE_SIZE("streamQueueSize"),
+    STREAM_MAX_EVENT_RATE("streamMaxEventRate"),
+    STREAM_INCLUDE_BOUNDS("streamIncludeBounds"),
+    RECENTLY_SEEN_TTL("recentlySeenTtl"),
+    RECENTLY_SEEN_SIZE("recentlySeenSize"),
+    RECENTLY_SEEN_MODE("recentlySeenMode"),
+    RECENTLY_SEEN_PERSIST("recentlySeenPersist"),
+    FAST_PATH_THRESHOLD("fastPathThreshold"),
+    FAST_PATH_MOVEMENT_TOLERANCE("fastPathMovementTolerance"),
+    ANALYSIS_THREAD_PRIORITY("analysisThreadPriority"),
+    SPLIT_POST_PROCESSING("splitPostProcessing"),
+    TRACK_BARCODES("trackBarcodes"),
+    ADAPTIVE_FORMATS("adaptiveFormats"),
+    ADAPTIVE_FULL_SCAN_INTERVAL("adaptiveFullScanInterval"),
+    KEEP_CAMERA_OPEN("keepCameraOpen"),
+    TUNING_PROFILE("tuningProfile"),
+    MIN_FRAME_SHARPNESS("minFrameSharpness"),
+    MIN_FRAME_LUMINANCE("minFrameLuminance"),
+    MAX_FRAME_DIFFERENCE("maxFrameDifference"),
+    FOCUS_ON_SCAN_AREA("focusOnScanArea"),
+    AUTO_ZOOM("autoZoom"),
+    PINCH_TO_ZOOM("pinchToZoom"),
+    INITIAL_ZOOM_RATIO("initialZoomRatio");
 
     private final String option;
 
@@ -0,0 +1,66 @@
+package com.biso.cordova.plugins.mlkit.barcode.scanner;
+
+import java.util.List;
+
+/**
+ * Counts for how many consecutive frames the same set of barcodes has been detected. Barcodes are
+ * compared with equals, so only value, format and type matter, not the position. The barcodes are
+ * accepted once they were the same for the stable threshold.
+ * <p>
+ * Doesn't use any Android classes, so the per frame cost can be measured on a plain JVM.
+ */
+public class StabilityCheck implements Stabilizer<Object> {
+
+  public static final String MODE = "strict";
+  private final int stableThreshold;
+  private int stableCounter = 0;
+
+  /**
+   * @param stableThreshold number of frames the barcodes have to stay the same
+   */
+  public StabilityCheck(int stableThreshold) {
+    this.stableThreshold = stableThreshold;
+  }
+
+  @Override
+  public boolean update(List<?> barcodes, List<?> lastBarcodes, long timestamp) {
+    if (!barcodes.isEmpty() && isSameSet(lastBarcodes, barcodes)) {
+      stableCounter++;
+      return stableCounter >= stableThreshold;
+    }
+    stableCounter = 0;
+    return false;
+  }
+
+  /**
+   * @return number of consecutive frames the barcodes have been the same
+   */
+  public int getStableCounter() {
+    return stableCounter;
+  }
+
+  @Override
+  public void reset() {
+    stableCounter = 0;
+  }
+
+  /**
+   * Compares two lists of barcodes without allocating. Lists are expected to be small (a handful
+   * of barcodes per frame), so the quadratic lookup is cheaper than building a set.
+   *
+   * @param barcodes list that is searched
+   * @param other    list whose barcodes have to be in barcodes
+   * @return true if both lists have the same size and barcodes contains every barcode of other
+   */
+  public static boolean isSameSet(List<?> barcodes, List<?> other) {
+    if (barcodes.size() != other.size()) {
+      return false;
+    }
+    for (int i = 0; i < other.size(); i++) {
+      if (!barcodes.contains(other.get(i))) {
+        return false;
+      }
+    }
+    return true;
+  }
+}
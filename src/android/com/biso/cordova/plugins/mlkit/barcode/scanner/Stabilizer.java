@@ -0,0 +1,27 @@
+package com.biso.cordova.plugins.mlkit.barcode.scanner;
+
+import java.util.List;
+
+/**
+ * Decides when the barcodes detected in the camera frames are reliable enough to be accepted as
+ * a result. Implementations are fed every analyzed frame in order.
+ *
+ * @param <T> type of the detected barcodes, compared by equals
+ */
+public interface Stabilizer<T> {
+
+  /**
+   * Feeds the barcodes of a frame into the stabilizer.
+   *
+   * @param barcodes     barcodes of the current frame
+   * @param lastBarcodes barcodes of the previous frame
+   * @param timestamp    time of the frame in milliseconds
+   * @return true if the barcodes of the current frame are accepted
+   */
+  boolean update(List<? extends T> barcodes, List<? extends T> lastBarcodes, long timestamp);
+
+  /**
+   * Forgets everything seen so far.
+   */
+  void reset();
+}
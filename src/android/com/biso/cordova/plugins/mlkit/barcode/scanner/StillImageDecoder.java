@@ -0,0 +1,274 @@
+package com.biso.cordova.plugins.mlkit.barcode.scanner;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.graphics.Matrix;
+import android.net.Uri;
+import android.util.Base64;
+import android.util.Log;
+import com.google.mlkit.vision.barcode.BarcodeScanner;
+import com.google.mlkit.vision.barcode.common.Barcode;
+import com.google.mlkit.vision.common.InputImage;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.json.JSONArray;
+
+/**
+ * Decodes barcodes in images that are already on the device instead of camera frames. Images are
+ * given as file or content uri, absolute path, data uri or plain base64. Base64 data can start with
+ * a slash too, every jpeg does ("/9j/"), so only a slash followed by an existing file is taken for
+ * a path.
+ * <p>
+ * Images are loaded on the decode pool of {@link ScanExecutors}, at most as many at the same time
+ * as the pool has threads, so no more images are in memory at once. Large images are subsampled
+ * while they are loaded. Detection runs on the decode pool too, with a client of the
+ * {@link BarcodeScannerPool} of its own, so it doesn't queue up behind the camera frames of a
+ * running scan. A client detects one image at a time, while one image is detected the next ones
+ * are loaded. Results are reported per image as soon as it is done, in the order the images
+ * finish.
+ */
+public class StillImageDecoder {
+
+  public static final String MAX_IMAGE_SIZE = "maxImageSize";
+  public static final int DEFAULT_MAX_IMAGE_SIZE = 2048;
+  public static final String IMAGE_NOT_READABLE = "IMAGE_NOT_READABLE";
+  public static final String DETECTION_FAILED = "DETECTION_FAILED";
+  private static final String STILL_IMAGE_DECODER = "StillImageDecoder";
+  private static final String DATA_URI = "data:";
+
+  private final Context context;
+  private final int barcodeFormats;
+  private final int maxImageSize;
+  private final Listener listener;
+
+  /**
+   * @param context        context used to open content uris
+   * @param barcodeFormats barcode formats as configured in the settings
+   * @param maxImageSize   images with a longer side than this are subsampled while they are loaded
+   * @param listener       receives the results, called on the decode threads
+   */
+  public StillImageDecoder(Context context, int barcodeFormats, int maxImageSize,
+      Listener listener) {
+    this.context = context;
+    this.barcodeFormats = barcodeFormats;
+    this.maxImageSize = maxImageSize > 0 ? maxImageSize : DEFAULT_MAX_IMAGE_SIZE;
+    this.listener = listener;
+  }
+
+  /**
+   * Starts decoding the images and returns right away.
+   *
+   * @param images uris, paths or base64 data of the images
+   */
+  public void decode(JSONArray images) {
+    int count = images.length();
+    if (count == 0) {
+      listener.onDone(0);
+      return;
+    }
+
+    ThreadPoolExecutor executor = ScanExecutors.getDecodeExecutor();
+    Batch batch = new Batch(images, executor);
+    int parallel = Math.min(count, executor.getMaximumPoolSize());
+    for (int i = 0; i < parallel; i++) {
+      batch.next();
+    }
+  }
+
+  /**
+   * Decodes one image. Doesn't wait for the detector, which runs on the same pool, so a thread is
+   * never blocked on work that is queued behind it.
+   */
+  private void decodeImage(Batch batch, int index) {
+    BitmapFactory.Options options = new BitmapFactory.Options();
+    Bitmap bitmap = null;
+    try {
+      bitmap = load(batch.images.optString(index, null), options);
+    } catch (IOException | IllegalArgumentException e) {
+      Log.d(STILL_IMAGE_DECODER, "image " + index + " can't be read: " + e.getMessage());
+    }
+    if (bitmap == null) {
+      listener.onImageFailed(index, IMAGE_NOT_READABLE);
+      batch.done();
+      return;
+    }
+
+    Bitmap image = bitmap;
+    try {
+      batch.scanner.process(InputImage.fromBitmap(image, 0)).addOnCompleteListener(Runnable::run,
+          task -> {
+            try {
+              if (task.isSuccessful()) {
+                report(index, task.getResult(), image, options.inSampleSize);
+              } else {
+                Log.d(STILL_IMAGE_DECODER, "image " + index + " can't be detected: "
+                    + task.getException());
+                listener.onImageFailed(index, DETECTION_FAILED);
+              }
+            } finally {
+              image.recycle();
+              batch.done();
+            }
+          });
+    } catch (RejectedExecutionException e) {
+      // the plugin is being destroyed
+      image.recycle();
+      listener.onImageFailed(index, DETECTION_FAILED);
+      batch.done();
+    }
+  }
+
+  private void report(int index, List<Barcode> barcodes, Bitmap bitmap, int sampleSize) {
+    // positions are reported in the coordinates of the original image, not the subsampled one
+    Matrix matrix = new Matrix();
+    matrix.setScale(sampleSize, sampleSize);
+    float centerX = bitmap.getWidth() * sampleSize / 2f;
+    float centerY = bitmap.getHeight() * sampleSize / 2f;
+    List<DetectedBarcode> detected = new ArrayList<>(barcodes.size());
+    for (int i = 0; i < barcodes.size(); i++) {
+      if (barcodes.get(i).getBoundingBox() != null) {
+        detected.add(new DetectedBarcode().set(barcodes.get(i), matrix, centerX, centerY));
+      }
+    }
+    Collections.sort(detected);
+    listener.onImageDecoded(index, DetectedBarcode.toJson(detected));
+  }
+
+  /**
+   * Loads the image subsampled by a power of two, so its longer side isn't longer than the maximum
+   * image size.
+   */
+  private Bitmap load(String image, BitmapFactory.Options options) throws IOException {
+    if (image == null || image.isEmpty()) {
+      return null;
+    }
+
+    byte[] data = null;
+    if (image.startsWith(DATA_URI)) {
+      data = Base64.decode(image.substring(image.indexOf(',') + 1), Base64.DEFAULT);
+    } else if (!image.contains(":") && !isFilePath(image)) {
+      data = Base64.decode(image, Base64.DEFAULT);
+    }
+
+    options.inJustDecodeBounds = true;
+    if (data != null) {
+      BitmapFactory.decodeByteArray(data, 0, data.length, options);
+    } else {
+      try (InputStream in = open(image)) {
+        BitmapFactory.decodeStream(in, null, options);
+      }
+    }
+    if (options.outWidth <= 0 || options.outHeight <= 0) {
+      return null;
+    }
+
+    options.inSampleSize = 1;
+    int longSide = Math.max(options.outWidth, options.outHeight);
+    while (longSide / options.inSampleSize > maxImageSize) {
+      options.inSampleSize *= 2;
+    }
+    options.inJustDecodeBounds = false;
+    if (data != null) {
+      return BitmapFactory.decodeByteArray(data, 0, data.length, options);
+    }
+    try (InputStream in = open(image)) {
+      return BitmapFactory.decodeStream(in, null, options);
+    }
+  }
+
+  private InputStream open(String image) throws IOException {
+    if (isFilePath(image)) {
+      return new FileInputStream(image);
+    }
+    InputStream in = context.getContentResolver().openInputStream(Uri.parse(image));
+    if (in == null) {
+      throw new IOException("no content for " + image);
+    }
+    return in;
+  }
+
+  private static boolean isFilePath(String image) {
+    return image.startsWith("/") && new File(image).isFile();
+  }
+
+  /**
+   * The images of one call to {@link #decode(JSONArray)}. Every image that is done starts the next
+   * one, so the number of images in memory stays bounded.
+   */
+  private class Batch {
+
+    private final JSONArray images;
+    private final Executor executor;
+    private final BarcodeScanner scanner;
+    private final int generation;
+    private final AtomicInteger next = new AtomicInteger();
+    private final AtomicInteger remaining;
+
+    private Batch(JSONArray images, Executor executor) {
+      this.images = images;
+      this.executor = executor;
+      this.scanner = BarcodeScannerPool.acquire(barcodeFormats, executor);
+      this.generation = BarcodeScannerPool.getGeneration();
+      this.remaining = new AtomicInteger(images.length());
+    }
+
+    private void next() {
+      int index = next.getAndIncrement();
+      if (index >= images.length()) {
+        return;
+      }
+      Runnable task = () -> decodeImage(this, index);
+      try {
+        executor.execute(task);
+      } catch (RejectedExecutionException e) {
+        // the plugin is being destroyed, the image is decoded on the calling thread instead
+        task.run();
+      }
+    }
+
+    private void done() {
+      if (remaining.decrementAndGet() == 0) {
+        // the client is already closed if the plugin was destroyed in the meantime
+        if (generation == BarcodeScannerPool.getGeneration()) {
+          BarcodeScannerPool.release(barcodeFormats, executor);
+        }
+        listener.onDone(images.length());
+      } else {
+        next();
+      }
+    }
+  }
+
+  public interface Listener {
+
+    /**
+     * @param index    position of the image in the list of images
+     * @param barcodes the barcodes found in the image as json array, sorted by their distance to
+     *                 the center of the image
+     */
+    void onImageDecoded(int index, String barcodes);
+
+    /**
+     * @param index position of the image in the list of images
+     * @param error why the image couldn't be decoded
+     */
+    void onImageFailed(int index, String error);
+
+    /**
+     * Called once after all images have been reported.
+     *
+     * @param count number of images
+     */
+    void onDone(int count);
+  }
+}
@@ -0,0 +1,340 @@
+package com.biso.cordova.plugins.mlkit.barcode.scanner;
+
+import android.content.Context;
+import android.util.Log;
+import android.util.Size;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+/**
+ * Remembers how past scans went on this device, so the next scan with the same settings starts
+ * close to where the last ones ended instead of finding it out again: the resolution the auto
+ * analysis policy settled on, the detector latency, the formats that were found and the time to
+ * the first result.
+ * <p>
+ * The profile is kept in a small versioned json file in the app storage. It is read once when the
+ * plugin is initialized and written asynchronously after every scan. A file with a different
+ * version is ignored.
+ */
+public class TuningProfile {
+
+  public static final int FORMAT_BITS = 16;
+  private static final String TUNING_PROFILE = "TuningProfile";
+  private static final String FILE_NAME = "mlkit_barcode_scanner_profile.json";
+  private static final int VERSION = 1;
+  // only a few settings combinations are used by an app, the least recently used ones are dropped
+  private static final int MAX_ENTRIES = 16;
+  // weight of the latest scan in the smoothed values
+  private static final double SMOOTHING = 0.3;
+  // the scanner always uses the back camera, see CameraSession
+  private static final String CAMERA = "back";
+  private static final Map<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+  private static final AtomicBoolean writePending = new AtomicBoolean(false);
+  private static ThreadPoolExecutor writer;
+  private static File file;
+
+  /**
+   * Reads the profile from the app storage. Does file io, should not be called on the main
+   * thread.
+   *
+   * @param context context of the app
+   */
+  public static synchronized void load(Context context) {
+    if (file != null) {
+      return;
+    }
+    file = new File(context.getFilesDir(), FILE_NAME);
+    if (!file.exists()) {
+      return;
+    }
+    try (InputStream in = new FileInputStream(file)) {
+      byte[] content = new byte[(int) file.length()];
+      int length = 0;
+      int read;
+      while (length < content.length
+          && (read = in.read(content, length, content.length - length)) > 0) {
+        length += read;
+      }
+      JSONObject json = new JSONObject(new String(content, 0, length, StandardCharsets.UTF_8));
+      if (json.optInt("version") != VERSION) {
+        Log.d(TUNING_PROFILE, "ignoring profile with version " + json.optInt("version"));
+        return;
+      }
+      JSONObject stored = json.getJSONObject("entries");
+      Iterator<String> keys = stored.keys();
+      while (keys.hasNext()) {
+        String key = keys.next();
+        entries.put(key, Entry.fromJson(stored.getJSONObject(key)));
+      }
+    } catch (IOException | JSONException e) {
+      Log.e(TUNING_PROFILE, "profile can't be read: " + e.getMessage());
+      entries.clear();
+    }
+  }
+
+  /**
+   * @param settings settings of the scan
+   * @return a copy of what is known about scans with these settings, null if nothing is known yet
+   */
+  public static synchronized Entry get(ScannerSettings settings) {
+    Entry entry = entries.get(getKey(settings));
+    return entry == null ? null : new Entry(entry);
+  }
+
+  /**
+   * Adds the outcome of a scan to the profile and writes the profile in the background.
+   *
+   * @param settings   settings of the scan
+   * @param metrics    metrics of the scan
+   * @param resolution the resolution the auto analysis policy ended with, null if the resolution
+   *                   is fixed
+   */
+  public static void record(ScannerSettings settings, ScanMetrics metrics, Size resolution) {
+    long p50 = metrics.getLatencyPercentile(0.5);
+    if (p50 < 0) {
+      // the camera never delivered a frame, there is nothing to learn from the scan
+      return;
+    }
+    long p95 = metrics.getLatencyPercentile(0.95);
+    long timeToResult = metrics.getTimeToFirstResult();
+    long[] formatCounts = metrics.getFormatCounts();
+
+    synchronized (TuningProfile.class) {
+      if (file == null) {
+        return;
+      }
+      Entry entry = getOrCreate(settings);
+      entry.latencyP50 = smooth(entry.latencyP50, p50);
+      entry.latencyP95 = smooth(entry.latencyP95, p95);
+      if (timeToResult >= 0) {
+        entry.timeToResult = smooth(entry.timeToResult, timeToResult);
+      }
+      if (resolution != null) {
+        entry.resolution = resolution.getWidth() + "x" + resolution.getHeight();
+      }
+      for (int bit = 0; bit < FORMAT_BITS; bit++) {
+        entry.formatCounts[bit] += formatCounts[bit];
+      }
+      entry.scans++;
+    }
+    save();
+  }
+
+  /**
+   * Replaces the format counts of the settings with the counts of the adaptive formats, which
+   * started out with the stored counts, and writes the profile in the background.
+   *
+   * @param settings     settings of the scan
+   * @param formatCounts how often each format was found, indexed by the bit of the format
+   */
+  public static void storeFormatCounts(ScannerSettings settings, long[] formatCounts) {
+    synchronized (TuningProfile.class) {
+      if (file == null) {
+        return;
+      }
+      Entry entry = getOrCreate(settings);
+      System.arraycopy(formatCounts, 0, entry.formatCounts, 0,
+          Math.min(FORMAT_BITS, formatCounts.length));
+    }
+    save();
+  }
+
+  private static Entry getOrCreate(ScannerSettings settings) {
+    String key = getKey(settings);
+    Entry entry = entries.get(key);
+    if (entry == null) {
+      entry = new Entry();
+      entries.put(key, entry);
+      Iterator<String> eldest = entries.keySet().iterator();
+      while (entries.size() > MAX_ENTRIES) {
+        eldest.next();
+        eldest.remove();
+      }
+    }
+    return entry;
+  }
+
+  /**
+   * Writes the profile on a background thread. Saves that are requested while a write is still
+   * pending are merged into it.
+   */
+  private static void save() {
+    if (!writePending.compareAndSet(false, true)) {
+      return;
+    }
+    getWriter().execute(() -> {
+      writePending.set(false);
+      String content;
+      File target;
+      synchronized (TuningProfile.class) {
+        target = file;
+        try {
+          JSONObject stored = new JSONObject();
+          for (Map.Entry<String, Entry> entry : entries.entrySet()) {
+            stored.put(entry.getKey(), entry.getValue().toJson());
+          }
+          content = new JSONObject().put("version", VERSION).put("entries", stored).toString();
+        } catch (JSONException e) {
+          Log.e(TUNING_PROFILE, e.getMessage());
+          return;
+        }
+      }
+      // written to a temporary file first, so a scan that is killed while writing doesn't leave a
+      // broken profile behind
+      File temporary = new File(target.getPath() + ".tmp");
+      try (OutputStream out = new FileOutputStream(temporary)) {
+        out.write(content.getBytes(StandardCharsets.UTF_8));
+      } catch (IOException e) {
+        Log.e(TUNING_PROFILE, "profile can't be written: " + e.getMessage());
+        return;
+      }
+      if (!temporary.renameTo(target)) {
+        Log.e(TUNING_PROFILE, "profile can't be replaced");
+      }
+    });
+  }
+
+  private static synchronized ThreadPoolExecutor getWriter() {
+    if (writer == null) {
+      // the thread ends when there is nothing to write, so it doesn't have to be shut down
+      writer = new ThreadPoolExecutor(1, 1, 10, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+          runnable -> new Thread(runnable, "MLKitProfileWriter"));
+      writer.allowCoreThreadTimeOut(true);
+    }
+    return writer;
+  }
+
+  /**
+   * Only the settings that change how fast barcodes are detected are part of the key, changing
+   * e.g. the colors of the overlay doesn't start a new profile.
+   */
+  private static String getKey(ScannerSettings settings) {
+    int hash = Objects.hash(BarcodeScannerPool.getEffectiveFormats(settings.getBarcodeFormats()),
+        settings.getDetectorSize(), settings.getAspectRatio(), settings.isCropToScanArea(),
+        settings.getScanAreaMargin(), settings.getAnalysisResolution());
+    return CAMERA + "_" + Integer.toHexString(hash);
+  }
+
+  private static long smooth(long previous, long value) {
+    return previous < 0 ? value : Math.round(previous + SMOOTHING * (value - previous));
+  }
+
+  /**
+   * What is known about the scans with one combination of settings. All times are in
+   * milliseconds, -1 if not known yet.
+   */
+  public static class Entry {
+
+    private long latencyP50 = -1;
+    private long latencyP95 = -1;
+    private long timeToResult = -1;
+    private String resolution;
+    private final long[] formatCounts = new long[FORMAT_BITS];
+    private int scans = 0;
+
+    private Entry() {
+    }
+
+    private Entry(Entry other) {
+      latencyP50 = other.latencyP50;
+      latencyP95 = other.latencyP95;
+      timeToResult = other.timeToResult;
+      resolution = other.resolution;
+      System.arraycopy(other.formatCounts, 0, formatCounts, 0, FORMAT_BITS);
+      scans = other.scans;
+    }
+
+    public long getLatencyP50() {
+      return latencyP50;
+    }
+
+    public long getLatencyP95() {
+      return latencyP95;
+    }
+
+    public long getTimeToResult() {
+      return timeToResult;
+    }
+
+    /**
+     * @return the resolution the auto analysis policy ended with, null if not known
+     */
+    public Size getResolution() {
+      return AnalysisPolicy.parseResolution(resolution);
+    }
+
+    /**
+     * @return how often each format was reported, indexed by the bit of the format
+     */
+    public long[] getFormatCounts() {
+      return formatCounts.clone();
+    }
+
+    public int getScans() {
+      return scans;
+    }
+
+    private JSONObject toJson() throws JSONException {
+      JSONObject formats = new JSONObject();
+      for (int bit = 0; bit < FORMAT_BITS; bit++) {
+        if (formatCounts[bit] > 0) {
+          formats.put(String.valueOf(1 << bit), formatCounts[bit]);
+        }
+      }
+      JSONObject json = new JSONObject();
+      json.put("latencyP50", latencyP50);
+      json.put("latencyP95", latencyP95);
+      json.put("timeToResult", timeToResult);
+      if (resolution != null) {
+        json.put("resolution", resolution);
+      }
+      json.put("formats", formats);
+      json.put("scans", scans);
+      return json;
+    }
+
+    private static Entry fromJson(JSONObject json) {
+      Entry entry = new Entry();
+      entry.latencyP50 = json.optLong("latencyP50", -1);
+      entry.latencyP95 = json.optLong("latencyP95", -1);
+      entry.timeToResult = json.optLong("timeToResult", -1);
+      entry.resolution = json.optString("resolution", null);
+      entry.scans = json.optInt("scans");
+      JSONObject formats = json.optJSONObject("formats");
+      if (formats != null) {
+        Iterator<String> keys = formats.keys();
+        while (keys.hasNext()) {
+          String format = keys.next();
+          try {
+            int bit = Integer.numberOfTrailingZeros(Integer.parseInt(format));
+            if (bit < FORMAT_BITS) {
+              entry.formatCounts[bit] = Math.max(0, formats.optLong(format));
+            }
+          } catch (NumberFormatException e) {
+            // do nothing
+          }
+        }
+      }
+      return entry;
+    }
+  }
+
+  private TuningProfile() {
+    throw new IllegalStateException("Utility class");
+  }
+}
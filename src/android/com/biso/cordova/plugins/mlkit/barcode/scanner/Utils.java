@@ -4,7 +4,6 @@ import android.graphics.Matrix;
 import android.graphics.Matrix.ScaleToFit;
 import android.graphics.Rect;
 import android.graphics.RectF;
-import android.util.Pair;
 
 public class Utils {
 
@@ -74,16 +73,14 @@ public class Utils {
 
   /**
    * Generates a translation matrix that translates coordinates in the source rectangle to
-   * coordinates in the destination rectangle
+   * coordinates in the destination rectangle, writes into an existing matrix
    *
    * @param source      A RectF to use as a source
    * @param destination The target RectF
-   * @return a translation matrix
+   * @param matrix      the matrix to overwrite
    */
-  public static Matrix getTranslationMatrix(RectF source, RectF destination) {
-    Matrix matrix = new Matrix();
+  public static void setTranslationMatrix(RectF source, RectF destination, Matrix matrix) {
     matrix.setRectToRect(source, destination, ScaleToFit.FILL);
-    return matrix;
   }
 
   /**
@@ -99,16 +96,65 @@ public class Utils {
   }
 
   /**
-   * Wrapper to map a Rect object and return a mapped RectF
+   * Converts a rectangle from the coordinates of the upright image (what the detector reports) to
+   * the coordinates of the camera buffer, which is rotated by rotationDegrees.
    *
-   * @param rect   rect to map
-   * @param matrix matrix that does the mapping
-   * @return a Pair with the RectF as 1st parameter and a Boolean with orientation information as 2nd
+   * @param upright         rectangle in upright image coordinates
+   * @param rotationDegrees rotation needed to turn the buffer upright (0, 90, 180 or 270)
+   * @param bufferWidth     width of the camera buffer
+   * @param bufferHeight    height of the camera buffer
+   * @param out             rectangle the result is written to
    */
-  public static Pair<RectF, Boolean> mapRect(Rect rect, Matrix matrix) {
-    RectF rectF = new RectF(rect);
-    matrix.mapRect(rectF);
-    return new Pair<>(rectF, rect.height() > rect.width());
+  public static void uprightToBuffer(RectF upright, int rotationDegrees, int bufferWidth,
+      int bufferHeight, RectF out) {
+    switch (rotationDegrees) {
+      case 90:
+        out.set(upright.top, bufferHeight - upright.right, upright.bottom,
+            bufferHeight - upright.left);
+        break;
+      case 180:
+        out.set(bufferWidth - upright.right, bufferHeight - upright.bottom,
+            bufferWidth - upright.left, bufferHeight - upright.top);
+        break;
+      case 270:
+        out.set(bufferWidth - upright.bottom, upright.left, bufferWidth - upright.top,
+            upright.right);
+        break;
+      default:
+        out.set(upright);
+        break;
+    }
+  }
+
+  /**
+   * Converts a rectangle from camera buffer coordinates to the coordinates of the upright image.
+   * Inverse of {@link #uprightToBuffer(RectF, int, int, int, RectF)}.
+   *
+   * @param buffer          rectangle in camera buffer coordinates
+   * @param rotationDegrees rotation needed to turn the buffer upright (0, 90, 180 or 270)
+   * @param bufferWidth     width of the camera buffer
+   * @param bufferHeight    height of the camera buffer
+   * @param out             rectangle the result is written to
+   */
+  public static void bufferToUpright(Rect buffer, int rotationDegrees, int bufferWidth,
+      int bufferHeight, Rect out) {
+    switch (rotationDegrees) {
+      case 90:
+        out.set(bufferHeight - buffer.bottom, buffer.left, bufferHeight - buffer.top,
+            buffer.right);
+        break;
+      case 180:
+        out.set(bufferWidth - buffer.right, bufferHeight - buffer.bottom,
+            bufferWidth - buffer.left, bufferHeight - buffer.top);
+        break;
+      case 270:
+        out.set(buffer.top, bufferWidth - buffer.right, buffer.bottom,
+            bufferWidth - buffer.left);
+        break;
+      default:
+        out.set(buffer);
+        break;
+    }
   }
 
   private Utils() {
@@ -0,0 +1,109 @@
+package com.biso.cordova.plugins.mlkit.barcode.scanner;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.UnaryOperator;
+
+/**
+ * Accepts barcodes by voting over a sliding window of frames instead of requiring the exact same
+ * set of barcodes in consecutive frames. Every barcode gets a vote for each frame it is detected
+ * in, a single missed frame or a second barcode flickering in and out doesn't start over.
+ * <p>
+ * A barcode is accepted once it was detected in enough frames of the window (hit ratio) or, if a
+ * dwell time is set, once it has been seen for that long. The barcodes of a frame are accepted if
+ * every one of them is accepted, so a partial read that only shows up now and then holds the
+ * result back until it disappears.
+ * <p>
+ * Doesn't use any Android classes, so the per frame cost can be measured on a plain JVM.
+ *
+ * @param <T> type of the detected barcodes, compared by equals
+ */
+public class VotingStabilizer<T> implements Stabilizer<T> {
+
+  public static final String MODE = "voting";
+  public static final int MAX_WINDOW = 64;
+
+  private final UnaryOperator<T> copy;
+  private final long windowMask;
+  private final int requiredHits;
+  private final long dwellTime;
+  private final ArrayList<Votes<T>> votes = new ArrayList<>();
+
+  /**
+   * @param copy      creates a copy of a barcode that is kept as key, barcodes passed to update
+   *                  may be reused by the caller
+   * @param window    number of frames the votes are counted over, at most {@link #MAX_WINDOW}
+   * @param hitRatio  ratio of frames in the window a barcode has to be detected in
+   * @param dwellTime time in milliseconds after which a barcode is accepted regardless of the hit
+   *                  ratio, 0 to disable
+   */
+  public VotingStabilizer(UnaryOperator<T> copy, int window, double hitRatio, long dwellTime) {
+    int frames = Math.max(1, Math.min(MAX_WINDOW, window));
+    this.copy = copy;
+    this.windowMask = frames == MAX_WINDOW ? -1L : (1L << frames) - 1;
+    this.requiredHits = Math.max(1, Math.min(frames, (int) Math.ceil(hitRatio * frames)));
+    this.dwellTime = Math.max(0, dwellTime);
+  }
+
+  @Override
+  public boolean update(List<? extends T> barcodes, List<? extends T> lastBarcodes,
+      long timestamp) {
+    // shift the window of every known barcode, barcodes without a hit left in the window are
+    // forgotten
+    for (int i = votes.size() - 1; i >= 0; i--) {
+      Votes<T> entry = votes.get(i);
+      entry.hits = (entry.hits << 1) & windowMask;
+      if (entry.hits == 0) {
+        int last = votes.size() - 1;
+        votes.set(i, votes.get(last));
+        votes.remove(last);
+      }
+    }
+
+    boolean accepted = !barcodes.isEmpty();
+    for (int i = 0; i < barcodes.size(); i++) {
+      T barcode = barcodes.get(i);
+      Votes<T> entry = find(barcode);
+      if (entry == null) {
+        entry = new Votes<>(copy.apply(barcode), timestamp);
+        votes.add(entry);
+      }
+      entry.hits |= 1;
+      accepted &= isAccepted(entry, timestamp);
+    }
+    return accepted;
+  }
+
+  @Override
+  public void reset() {
+    votes.clear();
+  }
+
+  private boolean isAccepted(Votes<T> entry, long timestamp) {
+    return Long.bitCount(entry.hits) >= requiredHits
+        || (dwellTime > 0 && timestamp - entry.firstSeen >= dwellTime);
+  }
+
+  private Votes<T> find(T barcode) {
+    for (int i = 0; i < votes.size(); i++) {
+      Votes<T> entry = votes.get(i);
+      if (entry.barcode.equals(barcode)) {
+        return entry;
+      }
+    }
+    return null;
+  }
+
+  private static class Votes<T> {
+
+    private final T barcode;
+    private final long firstSeen;
+    // one bit per frame of the window, the lowest bit is the current frame
+    private long hits = 0;
+
+    private Votes(T barcode, long firstSeen) {
+      this.barcode = barcode;
+      this.firstSeen = firstSeen;
+    }
+  }
+}
@@ -0,0 +1,156 @@
+package com.biso.cordova.plugins.mlkit.barcode.scanner;
+
+import android.graphics.RectF;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.util.Log;
+import androidx.camera.core.Camera;
+import androidx.camera.core.ZoomState;
+import java.util.List;
+
+/**
+ * Sets the zoom of the camera: the initial zoom of a scan, pinch to zoom and, if enabled, automatic
+ * zoom for barcodes that are too small to be read quickly.
+ * <p>
+ * Automatic zoom looks at the size of the largest detected barcode relative to the scan area. While
+ * it is smaller than {@value #MIN_SIZE}, or while barcodes are detected for a while without
+ * becoming stable, the zoom is stepped up by at most {@value #STEP} at a time, up to
+ * {@value #MAX_AUTO_ZOOM_RATIO}. Once the barcode is larger than {@value #MAX_SIZE} the zoom is
+ * stepped back down, never below the initial zoom. Automatic zoom stops for the rest of the scan
+ * once the user zooms by hand.
+ */
+public class ZoomController implements DetectionFeedback {
+
+  private static final String ZOOM_CONTROLLER = "ZoomController";
+  private static final float MIN_SIZE = 0.25f;
+  private static final float MAX_SIZE = 0.9f;
+  private static final float TARGET_SIZE = 0.4f;
+  private static final float STEP = 1.25f;
+  // digital zoom beyond this doesn't add detail, the barcode only gets blurrier
+  private static final float MAX_AUTO_ZOOM_RATIO = 4f;
+  private static final int UNSTABLE_FRAMES = 10;
+  // time the camera needs to apply a zoom step and deliver frames with it
+  private static final long STEP_INTERVAL = 400;
+
+  private final boolean auto;
+  private final float initialZoomRatio;
+  private final Handler handler = new Handler(Looper.getMainLooper());
+  private Camera camera;
+  private float zoomRatio;
+  private volatile boolean manual = false;
+  private volatile long lastStep = 0;
+  // only accessed on the post processing thread
+  private int unstableFrames = 0;
+
+  public ZoomController(ScannerSettings settings) {
+    this.auto = settings.isAutoZoom();
+    this.initialZoomRatio = (float) Math.max(1, settings.getInitialZoomRatio());
+    this.zoomRatio = initialZoomRatio;
+  }
+
+  /**
+   * @param settings scanner settings
+   * @return true if the zoom has to be controlled at all
+   */
+  public static boolean isEnabled(ScannerSettings settings) {
+    return settings.isAutoZoom() || settings.isPinchToZoom()
+        || settings.getInitialZoomRatio() > 1;
+  }
+
+  /**
+   * Sets the camera the zoom is applied to, must be called on the main thread.
+   *
+   * @param camera the camera, null if the camera isn't bound
+   */
+  public void setCamera(Camera camera) {
+    this.camera = camera;
+  }
+
+  /**
+   * Starts the scan over at the initial zoom, must be called on the main thread after
+   * {@link #setCamera(Camera)}.
+   */
+  public void reset() {
+    manual = false;
+    lastStep = 0;
+    setZoomRatio(initialZoomRatio);
+  }
+
+  /**
+   * Applies the current zoom to the camera again, e.g. after the camera was closed while the scan
+   * was in the background, must be called on the main thread after {@link #setCamera(Camera)}.
+   */
+  public void restore() {
+    setZoomRatio(zoomRatio);
+  }
+
+  /**
+   * Zooms by a factor because the user pinched the preview, must be called on the main thread.
+   *
+   * @param factor factor the zoom is multiplied with
+   */
+  public void zoomBy(float factor) {
+    manual = true;
+    setZoomRatio(zoomRatio * factor);
+  }
+
+  @Override
+  public void onFrame(List<DetectedBarcode> barcodes, RectF scanArea, boolean accepted) {
+    if (!auto || manual || barcodes.isEmpty() || accepted) {
+      unstableFrames = 0;
+      return;
+    }
+    unstableFrames++;
+    if (SystemClock.elapsedRealtime() - lastStep < STEP_INTERVAL) {
+      return;
+    }
+
+    float size = 0;
+    for (int i = 0; i < barcodes.size(); i++) {
+      RectF box = barcodes.get(i).getBoundingBox();
+      size = Math.max(size,
+          Math.max(box.width() / scanArea.width(), box.height() / scanArea.height()));
+    }
+    float factor;
+    if (size < MIN_SIZE) {
+      factor = Math.min(STEP, TARGET_SIZE / Math.max(size, 0.01f));
+    } else if (size > MAX_SIZE) {
+      factor = 1 / STEP;
+    } else if (unstableFrames >= UNSTABLE_FRAMES && size < TARGET_SIZE) {
+      // readable size, but still not stable, a little more detail might be enough
+      factor = STEP;
+    } else {
+      return;
+    }
+    unstableFrames = 0;
+    lastStep = SystemClock.elapsedRealtime();
+    handler.post(() -> stepBy(factor));
+  }
+
+  private void stepBy(float factor) {
+    if (manual) {
+      return;
+    }
+    float ratio = zoomRatio * factor;
+    ratio = Math.max(initialZoomRatio, Math.min(MAX_AUTO_ZOOM_RATIO, ratio));
+    if (Math.abs(ratio - zoomRatio) > 0.01f) {
+      if (Log.isLoggable(ZOOM_CONTROLLER, Log.DEBUG)) {
+        Log.d(ZOOM_CONTROLLER, "zooming to " + ratio);
+      }
+      setZoomRatio(ratio);
+    }
+  }
+
+  private void setZoomRatio(float ratio) {
+    if (camera == null) {
+      return;
+    }
+    ZoomState state = camera.getCameraInfo().getZoomState().getValue();
+    if (state != null) {
+      ratio = Math.max(state.getMinZoomRatio(), Math.min(state.getMaxZoomRatio(), ratio));
+    }
+    zoomRatio = ratio;
+    camera.getCameraControl().setZoomRatio(ratio);
+  }
+}
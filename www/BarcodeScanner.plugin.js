@@ -63,7 +63,47 @@ const defaultOptions = Object.freeze({
     focusBackgroundColor: "#66FFFFFF",
     stableThreshold: 5,
     debugOverlay: false,
-    ignoreRotatedBarcodes: false
+    ignoreRotatedBarcodes: false,
+    continuousMode: false,
+    cropToScanArea: false,
+    scanAreaMargin: 0.1,
+    analysisResolution: "",
+    maxAnalysisFps: 0,
+    backpressureStrategy: "keepOnlyLatest",
+    detectionLatencyBudget: 100,
+    reportMetrics: false,
+    stabilizationMode: 'strict',
+    stabilizationWindow: 10,
+    stabilizationHitRatio: 0.6,
+    stabilizationDwellTime: 0,
+    batchMode: false,
+    batchSize: 0,
+    batchTimeout: 0,
+    batchProgress: false,
+    streamResults: false,
+    streamQueueSize: 32,
+    streamMaxEventRate: 10,
+    streamIncludeBounds: false,
+    recentlySeenTtl: 0,
+    recentlySeenSize: 100,
+    recentlySeenMode: 'skip',
+    recentlySeenPersist: true,
+    fastPathThreshold: 0,
+    fastPathMovementTolerance: 0.05,
+    analysisThreadPriority: 0,
+    splitPostProcessing: false,
+    trackBarcodes: false,
+    adaptiveFormats: false,
+    adaptiveFullScanInterval: 15,
+    keepCameraOpen: 0,
+    tuningProfile: false,
+    minFrameSharpness: 0,
+    minFrameLuminance: 0,
+    maxFrameDifference: 0,
+    focusOnScanArea: false,
+    autoZoom: false,
+    pinchToZoom: false,
+    initialZoomRatio: 1
 });
 
 function keyByValue(obj, value) {
@@ -87,6 +127,13 @@ class MLKitBarcodeScanner {
             "distanceToCenter": Math.round(barcode.distanceToCenter * 100) / 100
         };
     }
+    prettyPrintEvent(event) {
+        return {
+            ...this.prettyPrintBarcode(event),
+            timestamp: event.timestamp,
+            ...(event.bounds ? { bounds: event.bounds } : {}),
+        };
+    }
     getBarcodeFormatFlags(barcodeFormats) {
         let barcodeFormatFlag = 0;
         let key;
@@ -101,18 +148,92 @@ class MLKitBarcodeScanner {
         }
         return barcodeFormatFlag;
     }
-    scan(userOptions, success, failure) {
+    scan(userOptions, success, failure, progress) {
+        const barcodeFormats = userOptions?.barcodeFormats || defaultOptions.barcodeFormats;
+        const config = {
+            ...defaultOptions,
+            ...userOptions,
+            barcodeFormats: this.getBarcodeFormatFlags(barcodeFormats),
+        };
+        this.sendScanRequest(config, success, failure, progress);
+    }
+    stream(userOptions, events, failure) {
         const barcodeFormats = userOptions?.barcodeFormats || defaultOptions.barcodeFormats;
         const config = {
             ...defaultOptions,
             ...userOptions,
             barcodeFormats: this.getBarcodeFormatFlags(barcodeFormats),
+            streamResults: true,
+            batchMode: false,
         };
-        this.sendScanRequest(config, success, failure);
+        this.sendScanRequest(config, () => events([]), failure, undefined, events);
+    }
+    warmUp(options, success, failure) {
+        const config = {
+            ...options,
+            barcodeFormats: this.getBarcodeFormatFlags(options?.barcodeFormats),
+        };
+        cordova.exec(() => {
+            success?.();
+        }, (err) => {
+            failure?.({
+                cancelled: false,
+                message: err
+            });
+        }, 'cordova-plugin-mlkit-barcode-scanner', 'warmUp', [config]);
     }
-    sendScanRequest(config, successCallback, failureCallback) {
-        cordova.exec((data) => {
-            successCallback(data.map((b) => this.prettyPrintBarcode(b)));
+    decodeImages(images, options, result, done, failure) {
+        const config = {
+            ...options,
+            barcodeFormats: this.getBarcodeFormatFlags(options?.barcodeFormats),
+        };
+        cordova.exec((message) => {
+            const data = JSON.parse(message);
+            if ('done' in data) {
+                done?.(data.done);
+            }
+            else if (data.barcodes) {
+                result({
+                    image: data.image,
+                    barcodes: data.barcodes.map((b) => this.prettyPrintBarcode(b)),
+                });
+            }
+            else {
+                result({ image: data.image, error: data.error });
+            }
+        }, (err) => {
+            failure?.({
+                cancelled: false,
+                message: err
+            });
+        }, 'cordova-plugin-mlkit-barcode-scanner', 'decodeImages', [images, config]);
+    }
+    stopScan(success, failure) {
+        cordova.exec(() => {
+            success?.();
+        }, (err) => {
+            failure?.({
+                cancelled: false,
+                message: err
+            });
+        }, 'cordova-plugin-mlkit-barcode-scanner', 'stopScan', []);
+    }
+    sendScanRequest(config, successCallback, failureCallback, progressCallback, eventsCallback) {
+        cordova.exec((message) => {
+            // results are serialized once on the native side and arrive as a json string
+            const data = typeof message === 'string' ? JSON.parse(message) : message;
+            if (Array.isArray(data)) {
+                successCallback(data.map((b) => this.prettyPrintBarcode(b)));
+            }
+            else if ('events' in data) {
+                eventsCallback?.(data.events.map((e) => this.prettyPrintEvent(e)));
+            }
+            else if ('progress' in data) {
+                progressCallback?.(data.progress.map((b) => this.prettyPrintBarcode(b)), data.count);
+            }
+            else {
+                successCallback(data.barcodes.map((b) => this.prettyPrintBarcode(b)), data.metrics);
+            }
         }, (err) => {
             switch (err) {
                 case 'NO_CAMERA_PERMISSION':
@@ -137,4 +258,4 @@ const barcodeScanner = new MLKitBarcodeScanner();
 module.exports = barcodeScanner;
 
 exports.MLKitBarcodeScanner = MLKitBarcodeScanner;
-//# sourceMappingURL=data:application/json;charset=utf-8;base64,eyJ2ZXJzaW9uIjozLCJmaWxlIjoiQmFyY29kZVNjYW5uZXIucGx1Z2luLmpzIiwic291cmNlcyI6W10sInNvdXJjZXNDb250ZW50IjpbXSwibmFtZXMiOltdLCJtYXBwaW5ncyI6Ijs7Ozs7Ozs7Ozs7Ozs7Ozs7Ozs7Ozs7Ozs7Ozs7Ozs7Ozs7Ozs7Ozs7Ozs7Ozs7Ozs7Ozs7Ozs7Ozs7Ozs7Ozs7Ozs7Ozs7Ozs7Ozs7Ozs7Ozs7Ozs7Ozs7Ozs7Ozs7Ozs7Ozs7Ozs7Ozs7Ozs7Ozs7Ozs7Ozs7Ozs7Ozs7Ozs7Ozs7Ozs7Ozs7Ozs7In0=
+//# sourceMappingURL=data:application/json;charset=utf-8;base64,eyJ2ZXJzaW9uIjozLCJmaWxlIjoiQmFyY29kZVNjYW5uZXIucGx1Z2luLmpzIiwic291cmNlcyI6W10sInNvdXJjZXNDb250ZW50IjpbXSwibmFtZXMiOltdLCJtYXBwaW5ncyI6Ijs7Ozs7Ozs7Ozs7Ozs7Ozs7Ozs7Ozs7Ozs7Ozs7Ozs7Ozs7Ozs7Ozs7Ozs7Ozs7Ozs7Ozs7Ozs7Ozs7Ozs7Ozs7Ozs7Ozs7Ozs7Ozs7Ozs7Ozs7Ozs7Ozs7Ozs7Ozs7Ozs7Ozs7Ozs7Ozs7Ozs7Ozs7Ozs7Ozs7Ozs7Ozs7Ozs7Ozs7Ozs7Ozs7Ozs7Ozs7Ozs7Ozs7Ozs7Ozs7Ozs7Ozs7Ozs7Ozs7Ozs7Ozs7Ozs7Ozs7Ozs7Ozs7Ozs7Ozs7Ozs7Ozs7Ozs7Ozs7Ozs7Ozs7Ozs7Ozs7Ozs7Ozs7Ozs7Ozs7Ozs7Ozs7Ozs7Ozs7Ozs7Ozs7Ozs7Ozs7Ozs7Ozs7Ozs7OyJ9